@@ -51,8 +51,7 @@ function ClassAssignments({ user, subjectId, subjectCode }) {
             
             // Upload files first if any selected
             if (selectedFiles.length > 0) {
-                const uploadResponse = await assignmentAPI.uploadFiles(selectedFiles);
-                uploadedFileNames = uploadResponse.data.fileNames;
+                uploadedFileNames = await assignmentAPI.storeFiles(selectedFiles);
             }
             
             const assignmentData = {
@@ -81,7 +80,7 @@ function ClassAssignments({ user, subjectId, subjectCode }) {
             fetchAssignments();
         } catch (err) {
             console.error('Error creating assignment:', err);
-            alert('Failed to create assignment');
+            alert(err.response ? 'Failed to create assignment' : `Failed to create assignment. ${err.message}`);
         }
     };
 
@@ -217,8 +217,7 @@ function AssignmentDetail({ user, onLogout }) {
       
       // Upload new files first if any
       if (editFileObjects.length > 0) {
-        const uploadResponse = await assignmentAPI.uploadFiles(editFileObjects);
-        uploadedFileNames = uploadResponse.data.fileNames;
+        uploadedFileNames = await assignmentAPI.storeFiles(editFileObjects);
       }
       
       // Combine existing files and new uploaded files
@@ -246,7 +245,7 @@ function AssignmentDetail({ user, onLogout }) {
       await fetchAssignment();
     } catch (error) {
       console.error('Error updating assignment:', error);
-      alert('Failed to update assignment. Please try again.');
+      alert(error.response ? 'Failed to update assignment. Please try again.' : `Failed to update assignment. ${error.message}`);
     }
   };
 
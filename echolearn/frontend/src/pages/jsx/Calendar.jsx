@@ -48,9 +48,26 @@ function Calendar({ user, onLogout }) {
         description: ''  
     });
 
+    // Only the visible window is fetched: the month grid including its leading/trailing weeks
+    const monthRange = (date) => ({
+        from: moment(date).startOf('month').startOf('week').format('YYYY-MM-DD'),
+        to: moment(date).endOf('month').endOf('week').add(1, 'day').format('YYYY-MM-DD')
+    });
+    const [range, setRange] = useState(() => monthRange(new Date()));
+
+    const handleRangeChange = (visible) => {
+        // Month view passes { start, end }; week / day views pass an array of dates
+        const start = Array.isArray(visible) ? visible[0] : visible.start;
+        const end = Array.isArray(visible) ? visible[visible.length - 1] : visible.end;
+        setRange({
+            from: moment(start).format('YYYY-MM-DD'),
+            to: moment(end).add(1, 'day').format('YYYY-MM-DD')
+        });
+    };
+
     const fetchEvents = () => {
         if (!user?.id) return;
-        axios.get(`/api/calendar/events?userId=${user.id}`)
+        axios.get(`/api/calendar/events?userId=${user.id}&from=${range.from}&to=${range.to}`)
             .then(res => {
                 setEvents(res.data.map(e => ({
                     ...e,
@@ -63,7 +80,7 @@ function Calendar({ user, onLogout }) {
 
     useEffect(() => {
         fetchEvents();
-    }, [user]);
+    }, [user, range]);
 
     const filteredEvents = useMemo(() => {
         if (!searchText) return events;
@@ -208,6 +225,7 @@ function Calendar({ user, onLogout }) {
                             components={components}
                             defaultView='month'
                             onSelectEvent={(event) => setSelectedEvent(event)}
+                            onRangeChange={handleRangeChange}
                             eventPropGetter={(event) => {
                                 let style = {
                                     backgroundColor: '#E2852E',
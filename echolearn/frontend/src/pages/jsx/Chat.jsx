@@ -2,6 +2,7 @@ import React, { useState, useRef, useEffect } from 'react';
 import { useLocation } from 'react-router-dom';
 import Layout from '../../components/Layout.jsx';
 import { conversationAPI, userAPI } from '../../services/api';
+import { messageSocket } from '../../services/messageSocket';
 import '../css/Chat.css';
 
 function Chat({ user, onLogout }) {
@@ -17,7 +18,7 @@ function Chat({ user, onLogout }) {
   const [showSideChatModal, setShowSideChatModal] = useState(false);
   const [isTyping, setIsTyping] = useState(false);
   const [chatUsers, setChatUsers] = useState([]); // Existing conversations
-  const [allUsers, setAllUsers] = useState([]); // All users for search
+  const [searchResults, setSearchResults] = useState([]); // Server-side user search matches
   const [loading, setLoading] = useState(true);
   const [deleteSideChatModal, setDeleteSideChatModal] = useState({ isOpen: false, sideChatId: null });
   const [editingMessage, setEditingMessage] = useState(null);
@@ -25,18 +26,67 @@ function Chat({ user, onLogout }) {
   const [openMessageMenu, setOpenMessageMenu] = useState(null);
   const [deleteConversationModal, setDeleteConversationModal] = useState({ isOpen: false, conversationId: null });
   const [selectedFile, setSelectedFile] = useState(null);
+  // Cursor (oldest loaded message id) for the next older page, null when the start of history is loaded
+  const [messagesCursor, setMessagesCursor] = useState(null);
+  const [sideChatCursor, setSideChatCursor] = useState(null);
+  const [loadingOlder, setLoadingOlder] = useState(false);
+  const skipScrollRef = useRef(false);
   const fileInputRef = useRef(null);
   const messagesEndRef = useRef(null);
 
   useEffect(() => {
     fetchConversations();
-    fetchAllUsers();
   }, []);
 
+  // Debounced server-side search over all users (the picker is not limited to one page of /users/all)
   useEffect(() => {
+    const query = searchQuery.trim();
+    if (!query) {
+      setSearchResults([]);
+      return;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await userAPI.searchUsers(query, user.id);
+        if (!cancelled) setSearchResults(response.data);
+      } catch (error) {
+        console.error('Error searching users:', error);
+      }
+    }, 250);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [searchQuery]);
+
+  useEffect(() => {
+    // Older pages are prepended; keep the reader where they are
+    if (skipScrollRef.current) {
+      skipScrollRef.current = false;
+      return;
+    }
     messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' });
   }, [messages, selectedChat, sideChatMessages, selectedSideChat]);
 
+  // Live updates for the open conversation and side chat (pushed over STOMP once the change commits)
+  useEffect(() => {
+    if (!selectedChat?.id) return;
+    return messageSocket.subscribe(messageSocket.conversationTopic(selectedChat.id), (push) => {
+      setMessages(prev => applyPush(prev, push));
+      if (push.event === 'CREATED' && push.senderId !== user.id) {
+        markConversationRead(selectedChat.id);
+      }
+    });
+  }, [selectedChat?.id]);
+
+  useEffect(() => {
+    if (!selectedSideChat?.id) return;
+    return messageSocket.subscribe(messageSocket.sideChatTopic(selectedSideChat.id), (push) => {
+      setSideChatMessages(prev => applyPush(prev, push));
+    });
+  }, [selectedSideChat?.id]);
+
   // Handle navigation from notification
   useEffect(() => {
     if (location.state?.conversationId && chatUsers.length > 0) {
@@ -47,6 +97,15 @@ function Chat({ user, onLogout }) {
     }
   }, [location.state, chatUsers]);
 
+  // Merges a pushed CREATED / EDITED / DELETED message into a loaded list; our own sends may arrive twice
+  const applyPush = (list, push) => {
+    const { event, ...message } = push;
+    if (event === 'CREATED') {
+      return list.some(m => m.id === message.id) ? list : [...list, message];
+    }
+    return list.map(m => m.id === message.id ? { ...m, ...message } : m);
+  };
+
   const fetchConversations = async () => {
     try {
       setLoading(true);
@@ -59,19 +118,14 @@ function Chat({ user, onLogout }) {
     }
   };
 
-  const fetchAllUsers = async () => {
-    try {
-      const response = await userAPI.getAllUsers(user.id);
-      setAllUsers(response.data);
-    } catch (error) {
-      console.error('Error fetching all users:', error);
-    }
-  };
+  // Messages come back a page at a time (newest first page); X-Next-Cursor points at older history
+  const nextCursor = (response) => response.headers['x-next-cursor'] || null;
 
   const fetchMessages = async (conversationId) => {
     try {
       const response = await conversationAPI.getMessages(conversationId);
       setMessages(response.data);
+      setMessagesCursor(nextCursor(response));
     } catch (error) {
       console.error('Error fetching messages:', error);
     }
@@ -90,18 +144,48 @@ function Chat({ user, onLogout }) {
     try {
       const response = await conversationAPI.getSideChatMessages(sideChatId);
       setSideChatMessages(response.data);
+      setSideChatCursor(nextCursor(response));
     } catch (error) {
       console.error('Error fetching side chat messages:', error);
     }
   };
 
-  // Filter logic: if search query exists, search all users; otherwise show existing conversations
+  const loadOlderMessages = async () => {
+    const cursor = selectedSideChat ? sideChatCursor : messagesCursor;
+    if (!cursor || loadingOlder) return;
+    try {
+      setLoadingOlder(true);
+      if (selectedSideChat) {
+        const response = await conversationAPI.getSideChatMessages(selectedSideChat.id, { before: cursor });
+        skipScrollRef.current = true;
+        setSideChatMessages(prev => [...response.data, ...prev]);
+        setSideChatCursor(nextCursor(response));
+      } else {
+        const response = await conversationAPI.getMessages(selectedChat.id, { before: cursor });
+        skipScrollRef.current = true;
+        setMessages(prev => [...response.data, ...prev]);
+        setMessagesCursor(nextCursor(response));
+      }
+    } catch (error) {
+      console.error('Error loading older messages:', error);
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
+  // Opening a conversation reads it: reset the badge now, the server count on the next inbox load
+  const markConversationRead = async (conversationId) => {
+    setChatUsers(prev => prev.map(c => c.id === conversationId ? { ...c, unreadCount: 0 } : c));
+    try {
+      await conversationAPI.markAsRead(conversationId, user.id);
+    } catch (error) {
+      console.error('Error marking conversation as read:', error);
+    }
+  };
+
+  // Filter logic: if search query exists, show the server's user matches; otherwise show existing conversations
   const filteredUsers = searchQuery.trim() 
-    ? allUsers
-        .filter(u => 
-          u.username.toLowerCase().includes(searchQuery.toLowerCase()) ||
-          u.email.toLowerCase().includes(searchQuery.toLowerCase())
-        )
+    ? searchResults
         .map(u => ({
           id: null, // No conversation ID yet
           userId: u.id,
@@ -134,6 +218,7 @@ function Chat({ user, onLogout }) {
         setSelectedChat(newConversation);
         setSelectedSideChat(null);
         setMessages([]);
+        setMessagesCursor(null);
         setSideChats([]);
         
         // Add to chatUsers so it appears in the conversation list
@@ -149,6 +234,7 @@ function Chat({ user, onLogout }) {
       setSelectedSideChat(null);
       fetchMessages(chatUser.id);
       fetchSideChats(chatUser.id);
+      markConversationRead(chatUser.id);
     }
   };
 
@@ -176,10 +262,7 @@ function Chat({ user, onLogout }) {
         );
       }
       
-      setMessages([...messages, {
-        ...response.data,
-        isOwn: true
-      }]);
+      setMessages(prev => applyPush(prev, { ...response.data, event: 'CREATED', isOwn: true }));
       setMessageText('');
       setSelectedFile(null);
       
@@ -237,6 +320,7 @@ function Chat({ user, onLogout }) {
   const handleCloseSideChat = () => {
     setSelectedSideChat(null);
     setSideChatMessages([]);
+    setSideChatCursor(null);
   };
 
   const handleDeleteSideChat = async (sideChatId, e) => {
@@ -272,10 +356,7 @@ function Chat({ user, onLogout }) {
         messageText
       );
       
-      setSideChatMessages([...sideChatMessages, {
-        ...response.data,
-        isOwn: true
-      }]);
+      setSideChatMessages(prev => applyPush(prev, { ...response.data, event: 'CREATED', isOwn: true }));
       setMessageText('');
       
       // Update message count
@@ -422,6 +503,9 @@ function Chat({ user, onLogout }) {
                     </div>
                     <p className="chat-user-last-message">{chatUser.lastMessage}</p>
                   </div>
+                  {chatUser.unreadCount > 0 && selectedChat?.id !== chatUser.id && (
+                    <span className="chat-unread-badge">{chatUser.unreadCount}</span>
+                  )}
                   {chatUser.id && !searchQuery.trim() && (
                     <button 
                       className="btn-delete-conversation"
@@ -464,6 +548,11 @@ function Chat({ user, onLogout }) {
               </div>
 
               <div className="chat-messages-area">
+                {(selectedSideChat ? sideChatCursor : messagesCursor) && (
+                  <button type="button" className="btn-load-older" onClick={loadOlderMessages} disabled={loadingOlder}>
+                    {loadingOlder ? 'Loading...' : 'Load older messages'}
+                  </button>
+                )}
                 {(selectedSideChat ? sideChatMessages : messages).map((message) => {
                   const isOwn = message.senderId === user.id;
                   const isSideChat = !!selectedSideChat;
@@ -512,6 +601,20 @@ function Chat({ user, onLogout }) {
                             </div>
                             {message.fileUrl && message.fileName && !message.isDeleted && (
                               <div className="message-file-attachment">
+                                {message.fileType && message.fileType.startsWith('image/') && (
+                                  <a
+                                    href={`http://localhost:8080/api/assignments/download/${message.fileUrl}`}
+                                    target="_blank"
+                                    rel="noopener noreferrer"
+                                  >
+                                    <img
+                                      src={`http://localhost:8080/api/assignments/preview/${message.fileUrl}`}
+                                      alt={message.fileName}
+                                      className="file-thumbnail"
+                                      loading="lazy"
+                                    />
+                                  </a>
+                                )}
                                 <a 
                                   href={`http://localhost:8080/api/assignments/download/${message.fileUrl}`}
                                   download={message.fileName}
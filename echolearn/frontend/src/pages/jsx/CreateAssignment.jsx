@@ -45,8 +45,7 @@ function CreateAssignment({ user, onLogout }) {
       
       // Upload files first if any selected
       if (selectedFiles.length > 0) {
-        const uploadResponse = await assignmentAPI.uploadFiles(selectedFiles);
-        uploadedFileNames = uploadResponse.data.fileNames;
+        uploadedFileNames = await assignmentAPI.storeFiles(selectedFiles);
       }
       
       const assignmentData = {
@@ -68,7 +67,7 @@ function CreateAssignment({ user, onLogout }) {
       navigate('/assignments');
     } catch (error) {
       console.error('Error creating assignment:', error);
-      alert('Failed to create assignment. Please try again.');
+      alert(error.response ? 'Failed to create assignment. Please try again.' : `Failed to create assignment. ${error.message}`);
     } finally {
       setLoading(false);
     }
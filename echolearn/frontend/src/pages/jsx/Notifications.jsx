@@ -12,6 +12,7 @@ function Notifications({ user, onLogout }) {
   const [openMenuId, setOpenMenuId] = useState(null);
   const [unreadCount, setUnreadCount] = useState(0);
   const [totalCount, setTotalCount] = useState(0);
+  const [nextCursor, setNextCursor] = useState(null);
   const menuRef = useRef(null);
 
   // Fetch notifications from backend with filter
@@ -19,18 +20,21 @@ function Notifications({ user, onLogout }) {
     const fetchNotifications = async () => {
       try {
         setLoading(true);
-        // Always fetch both counts
-        const [allResponse, unreadResponse] = await Promise.all([
+        // Counts always come from the feed header and the cached unread count;
+        // the unread list itself is only loaded for the Unread tab
+        const [allResponse, countResponse, unreadResponse] = await Promise.all([
           notificationAPI.getByUser(user.id),
-          notificationAPI.getUnread(user.id)
+          notificationAPI.getUnreadCount(user.id),
+          filter === 'Unread' ? notificationAPI.getUnread(user.id) : Promise.resolve(null)
         ]);
         
-        // Update counts
-        setTotalCount(allResponse.data.length || 0);
-        setUnreadCount(unreadResponse.data.notifications?.length || 0);
+        // Update counts (the feed is paged; its total comes from a header)
+        setTotalCount(Number(allResponse.headers['x-total-count']) || allResponse.data.length || 0);
+        setNextCursor(allResponse.headers['x-next-cursor'] || null);
+        setUnreadCount(countResponse.data.unreadCount || 0);
         
         // Set displayed notifications based on filter
-        if (filter === 'Unread') {
+        if (unreadResponse) {
           setNotifications(unreadResponse.data.notifications || []);
         } else {
           setNotifications(allResponse.data);
@@ -47,6 +51,23 @@ function Notifications({ user, onLogout }) {
     }
   }, [user, filter]); // Re-fetch when filter changes
 
+  // Live updates over SSE instead of polling
+  useEffect(() => {
+    if (!user?.id) return;
+
+    const source = new EventSource(notificationAPI.streamUrl(user.id));
+    source.addEventListener('notification', (event) => {
+      const notification = JSON.parse(event.data);
+      setNotifications(prev => [notification, ...prev]);
+      setUnreadCount(prev => prev + 1);
+      setTotalCount(prev => prev + 1);
+    });
+    source.addEventListener('unread-count', (event) => {
+      setUnreadCount(JSON.parse(event.data).unreadCount);
+    });
+    return () => source.close();
+  }, [user]);
+
   // Close menu when clicking outside
   useEffect(() => {
     function handleClickOutside(event) {
@@ -106,6 +127,16 @@ function Notifications({ user, onLogout }) {
     }
   };
 
+  const handleLoadMore = async () => {
+    try {
+      const response = await notificationAPI.getByUser(user.id, { cursor: nextCursor });
+      setNotifications([...notifications, ...response.data]);
+      setNextCursor(response.headers['x-next-cursor'] || null);
+    } catch (error) {
+      console.error('Error loading more notifications:', error);
+    }
+  };
+
   const handleMarkAllAsRead = async () => {
     try {
       await notificationAPI.markAllAsRead(user.id);
@@ -259,6 +290,11 @@ function Notifications({ user, onLogout }) {
               </div>
             ))
           )}
+          {filter === 'All' && nextCursor && (
+            <button className="btn-mark-all" onClick={handleLoadMore}>
+              Load More
+            </button>
+          )}
         </div>
       </div>
     </Layout>
@@ -15,6 +15,9 @@ export const authAPI = {
   signup: (userData) => api.post('/auth/signup', userData),
 };
 
+// spring.servlet.multipart.max-file-size and max-request-size (both 10MB), less room for the multipart framing
+const MULTIPART_LIMIT = 10 * 1024 * 1024 - 64 * 1024;
+
 // Assignment API
 export const assignmentAPI = {
   getByUser: (userId, params = {}) => {
@@ -24,6 +27,8 @@ export const assignmentAPI = {
     if (params.subjectCode) queryParams.append('subjectCode', params.subjectCode);
     if (params.status) queryParams.append('status', params.status);
     if (params.sortBy) queryParams.append('sortBy', params.sortBy);
+    if (params.page != null) queryParams.append('page', params.page);
+    if (params.size) queryParams.append('size', params.size);
     
     const queryString = queryParams.toString();
     return api.get(`/assignments/user/${userId}${queryString ? `?${queryString}` : ''}`);
@@ -47,18 +52,97 @@ export const assignmentAPI = {
       headers: { 'Content-Type': 'multipart/form-data' }
     });
   },
+  // Uploads files for an assignment and resolves to the comma-separated stored names; rejects with an
+  // Error naming every file that was not stored, so a partial upload is never attached silently.
+  // Files over the multipart limit go through the chunked upload API; the rest are sent in multipart
+  // requests that each stay under the request limit.
+  storeFiles: async (files) => {
+    const results = [];
+    let batch = [];
+    let batchSize = 0;
+    const sendBatch = async () => {
+      if (batch.length === 0) return;
+      let data;
+      try {
+        ({ data } = await assignmentAPI.uploadFiles(batch));
+      } catch (error) {
+        if (!error.response?.data?.files) throw error;
+        data = error.response.data;
+      }
+      results.push(...(data.files || []));
+      batch = [];
+      batchSize = 0;
+    };
+
+    for (const file of files) {
+      if (file.size > MULTIPART_LIMIT) {
+        try {
+          results.push((await uploadAPI.uploadFile(file)).data);
+        } catch (error) {
+          results.push({ originalFileName: file.name, success: false, error: error.response?.data || error.message });
+        }
+        continue;
+      }
+      if (batchSize + file.size > MULTIPART_LIMIT) {
+        await sendBatch();
+      }
+      batch.push(file);
+      batchSize += file.size;
+    }
+    await sendBatch();
+
+    const failed = results.filter(file => !file.success);
+    if (failed.length > 0) {
+      throw new Error(`Could not upload ${failed.map(file => `${file.originalFileName} (${file.error})`).join(', ')}`);
+    }
+    return results.map(file => file.fileName).join(',');
+  },
   downloadFile: (fileName) => `${API_BASE_URL}/assignments/download/${fileName}`,
+  previewFile: (fileName) => `${API_BASE_URL}/assignments/preview/${fileName}`,
+};
+
+// Chunked upload API (large files; resumable)
+export const uploadAPI = {
+  init: (file) => api.post('/uploads', { fileName: file.name, size: file.size, contentType: file.type }),
+  status: (uploadId) => api.get(`/uploads/${uploadId}`),
+  putChunk: (uploadId, offset, blob) => api.put(`/uploads/${uploadId}`, blob, {
+    params: { offset },
+    headers: { 'Content-Type': 'application/octet-stream' }
+  }),
+  complete: (uploadId) => api.post(`/uploads/${uploadId}/complete`),
+  abort: (uploadId) => api.delete(`/uploads/${uploadId}`),
+  // Sends the file chunk by chunk; on a failed chunk asks the server where to resume
+  uploadFile: async (file, onProgress) => {
+    const { data: session } = await uploadAPI.init(file);
+    let offset = session.receivedBytes;
+    let retries = 0;
+    while (offset < file.size) {
+      try {
+        const { data } = await uploadAPI.putChunk(session.uploadId, offset, file.slice(offset, offset + session.chunkSize));
+        offset = data.receivedBytes;
+        retries = 0;
+        if (onProgress) onProgress(offset / file.size);
+      } catch (error) {
+        if (++retries > 3) throw error;
+        offset = (await uploadAPI.status(session.uploadId)).data.receivedBytes;
+      }
+    }
+    return uploadAPI.complete(session.uploadId);
+  },
 };
 
 // Notification API
 export const notificationAPI = {
-  getByUser: (userId) => api.get(`/notifications/user/${userId}`),
+  getByUser: (userId, params = {}) => api.get(`/notifications/user/${userId}`, { params }),
   getUnread: (userId) => api.get(`/notifications/user/${userId}/unread`),
+  getUnreadCount: (userId) => api.get(`/notifications/user/${userId}/unread-count`),
   create: (notification) => api.post('/notifications', notification),
   markAsRead: (id) => api.put(`/notifications/${id}/read`),
   markAllAsRead: (userId) => api.put(`/notifications/user/${userId}/read-all`),
+  clearRead: (userId, olderThanDays = 0) => api.delete(`/notifications/user/${userId}/read`, { params: { olderThanDays } }),
   delete: (id) => api.delete(`/notifications/${id}`),
   handleClick: (id) => api.post(`/notifications/${id}/click`),
+  streamUrl: (userId) => `${API_BASE_URL}/notifications/user/${userId}/stream`,
 };
 
 // Chat API
@@ -72,7 +156,7 @@ export const chatAPI = {
 
 // User API
 export const userAPI = {
-  searchUsers: (query, currentUserId) => api.get(`/users/search?query=${query}&currentUserId=${currentUserId}`),
+  searchUsers: (query, currentUserId, limit) => api.get('/users/search', { params: { query, currentUserId, limit } }),
   getAllUsers: (currentUserId) => api.get(`/users/all?currentUserId=${currentUserId}`),
   getCurrentUser: (userId) => api.get(`/users/${userId}`),
   updateUser: (userId, userData) => api.put(`/users/${userId}`, userData),
@@ -82,7 +166,8 @@ export const userAPI = {
 export const conversationAPI = {
   getUserConversations: (userId) => api.get(`/conversations/user/${userId}`),
   startConversation: (user1Id, user2Id) => api.post('/conversations/start', { user1Id, user2Id }),
-  getMessages: (conversationId) => api.get(`/conversations/${conversationId}/messages`),
+  getMessages: (conversationId, params = {}) => api.get(`/conversations/${conversationId}/messages`, { params }),
+  markAsRead: (conversationId, userId) => api.put(`/conversations/${conversationId}/read?userId=${userId}`),
   sendMessage: (conversationId, senderId, content) => api.post(`/conversations/${conversationId}/messages`, { senderId, content }),
   sendMessageWithFile: (conversationId, senderId, content, file) => {
     const formData = new FormData();
@@ -99,7 +184,7 @@ export const conversationAPI = {
   getSideChats: (conversationId) => api.get(`/conversations/${conversationId}/sidechats`),
   createSideChat: (conversationId, title, createdBy) => api.post(`/conversations/${conversationId}/sidechats`, { title, createdBy }),
   deleteSideChat: (sideChatId) => api.delete(`/conversations/sidechats/${sideChatId}`),
-  getSideChatMessages: (sideChatId) => api.get(`/conversations/sidechats/${sideChatId}/messages`),
+  getSideChatMessages: (sideChatId, params = {}) => api.get(`/conversations/sidechats/${sideChatId}/messages`, { params }),
   sendSideChatMessage: (sideChatId, senderId, content) => api.post(`/conversations/sidechats/${sideChatId}/messages`, { senderId, content }),
 };
 
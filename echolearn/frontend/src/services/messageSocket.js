@@ -0,0 +1,106 @@
+// Minimal STOMP 1.2 client over the browser WebSocket for the server's /ws endpoint (simple broker topics).
+// One shared connection, opened on the first subscription and closed after the last; subscriptions are
+// re-sent after every reconnect.
+const WS_URL = 'ws://localhost:8080/ws';
+const RECONNECT_MS = 3000;
+
+let socket = null;
+let connected = false;
+let reconnectTimer = null;
+let nextId = 0;
+const subscriptions = new Map(); // id -> { destination, onMessage }
+
+const sendFrame = (command, headers = {}) => {
+  let frame = `${command}\n`;
+  Object.entries(headers).forEach(([name, value]) => {
+    frame += `${name}:${value}\n`;
+  });
+  socket.send(`${frame}\n\0`);
+};
+
+const handleFrame = (raw) => {
+  // Heart-beats are bare newlines
+  const frame = raw.replace(/^[\r\n]+/, '');
+  if (!frame) return;
+  const headerEnd = frame.indexOf('\n\n');
+  const lines = (headerEnd >= 0 ? frame.slice(0, headerEnd) : frame).split('\n');
+  const body = headerEnd >= 0 ? frame.slice(headerEnd + 2) : '';
+  const headers = {};
+  lines.slice(1).forEach(line => {
+    const colon = line.indexOf(':');
+    if (colon > 0 && !(line.slice(0, colon) in headers)) {
+      headers[line.slice(0, colon)] = line.slice(colon + 1);
+    }
+  });
+
+  if (lines[0] === 'CONNECTED') {
+    connected = true;
+    subscriptions.forEach((subscription, id) => sendFrame('SUBSCRIBE', { id, destination: subscription.destination }));
+  } else if (lines[0] === 'MESSAGE') {
+    const subscription = subscriptions.get(headers.subscription);
+    if (subscription) {
+      try {
+        subscription.onMessage(JSON.parse(body));
+      } catch (error) {
+        console.error('Error handling pushed message:', error);
+      }
+    }
+  } else if (lines[0] === 'ERROR') {
+    console.error('STOMP error:', headers.message || body);
+  }
+};
+
+const connect = () => {
+  reconnectTimer = null;
+  socket = new WebSocket(WS_URL);
+  socket.onopen = () => sendFrame('CONNECT', { 'accept-version': '1.2', host: 'localhost', 'heart-beat': '0,0' });
+  socket.onmessage = (event) => {
+    if (typeof event.data === 'string') {
+      event.data.split('\0').forEach(handleFrame);
+    }
+  };
+  socket.onclose = () => {
+    socket = null;
+    connected = false;
+    if (subscriptions.size > 0 && !reconnectTimer) {
+      reconnectTimer = setTimeout(connect, RECONNECT_MS);
+    }
+  };
+};
+
+// Calls onMessage with each JSON payload pushed to destination; returns the unsubscribe function
+const subscribe = (destination, onMessage) => {
+  const id = `sub-${nextId++}`;
+  subscriptions.set(id, { destination, onMessage });
+  if (connected) {
+    sendFrame('SUBSCRIBE', { id, destination });
+  } else if (!socket && !reconnectTimer) {
+    connect();
+  }
+
+  return () => {
+    if (!subscriptions.delete(id)) return;
+    if (connected) {
+      sendFrame('UNSUBSCRIBE', { id });
+    }
+    if (subscriptions.size === 0) {
+      clearTimeout(reconnectTimer);
+      reconnectTimer = null;
+      if (socket) {
+        // Detached first, so a subscription made while it closes opens a fresh connection
+        const closing = socket;
+        socket = null;
+        connected = false;
+        closing.onclose = null;
+        closing.close();
+      }
+    }
+  };
+};
+
+export const messageSocket = {
+  subscribe,
+  conversationTopic: (conversationId) => `/topic/conversations/${conversationId}`,
+  sideChatTopic: (sideChatId) => `/topic/sidechats/${sideChatId}`,
+  channelTopic: (channelName) => `/topic/channels/${channelName}`,
+};
@@ -133,7 +133,6 @@ public class DataInitializer implements CommandLineRunner {
                 return subjectRepository.save(newSubject);
             });
         
-        
         System.out.println("Sample data initialized:");
         System.out.println("- Student Login - Email: lerah.caones@example.com | Password: password123");
         System.out.println("- Teacher Login - Email: joemarieamparo@example.com | Password: password123");
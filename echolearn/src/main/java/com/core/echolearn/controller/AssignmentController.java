@@ -1,34 +1,39 @@
 package com.core.echolearn.controller;
 
+import com.core.echolearn.dto.FileUploadResultDTO;
 import com.core.echolearn.entity.Assignment;
 import com.core.echolearn.entity.AssignmentSubmission;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.entity.Subject;
-import com.core.echolearn.entity.Notification;
-import com.core.echolearn.entity.Enrollment;
 import com.core.echolearn.service.AssignmentService;
 import com.core.echolearn.service.AssignmentSubmissionService;
 import com.core.echolearn.service.UserService;
 import com.core.echolearn.service.SubjectService;
-import com.core.echolearn.service.NotificationService;
+import com.core.echolearn.service.NotificationFanoutService;
 import com.core.echolearn.service.FileStorageService;
-import com.core.echolearn.repository.EnrollmentRepository;
+import com.core.echolearn.service.FileDownloadService;
+import com.core.echolearn.service.PreviewService;
+import com.core.echolearn.service.StorageCodec;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
-import java.util.ArrayList;
+import java.util.Set;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 
 @RestController
@@ -49,13 +54,16 @@ public class AssignmentController {
     private SubjectService subjectService;
     
     @Autowired
-    private NotificationService notificationService;
+    private NotificationFanoutService notificationFanoutService;
     
     @Autowired
-    private EnrollmentRepository enrollmentRepository;
+    private FileStorageService fileStorageService;
     
     @Autowired
-    private FileStorageService fileStorageService;
+    private FileDownloadService fileDownloadService;
+    
+    @Autowired
+    private PreviewService previewService;
     
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getAssignmentsByUser(
@@ -64,7 +72,9 @@ public class AssignmentController {
             @RequestParam(required = false) Long subjectId,
             @RequestParam(required = false) String subjectCode,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String sortBy) {
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         try {
             Optional<User> userOpt = userService.findById(userId);
             if (!userOpt.isPresent()) {
@@ -73,82 +83,18 @@ public class AssignmentController {
             }
             
             User user = userOpt.get();
-            List<Assignment> assignments = assignmentService.getAssignmentsByUser(user);
-            
-            // Apply filtering in backend
-            java.time.LocalDate today = java.time.LocalDate.now();
-            java.time.LocalDate weekFromNow = today.plusDays(7);
-            
-            assignments = assignments.stream()
-                .filter(assignment -> {
-                    // Search filter
-                    if (search != null && !search.isEmpty()) {
-                        if (!assignment.getTitle().toLowerCase().contains(search.toLowerCase())) {
-                            return false;
-                        }
-                    }
-                    
-                    // Subject filter - by ID for teachers, by code for students
-                    if (subjectId != null) {
-                        if (assignment.getSubject() == null || 
-                            !assignment.getSubject().getSubjectId().equals(subjectId)) {
-                            return false;
-                        }
-                    }
-                    if (subjectCode != null && !subjectCode.isEmpty()) {
-                        if (assignment.getSubject() == null || 
-                            !assignment.getSubject().getSubjectCode().equals(subjectCode)) {
-                            return false;
-                        }
-                    }
-                    
-                    // Status filter (for students)
-                    if (status != null && "STUDENT".equals(user.getRole())) {
-                        boolean isCompleted = submissionService.hasSubmitted(assignment, user);
-                        java.time.LocalDate dueDate = assignment.getDueDate();
-                        
-                        switch (status) {
-                            case "completed":
-                                return isCompleted;
-                            case "overdue":
-                                return !isCompleted && dueDate.isBefore(today);
-                            case "today":
-                                return !isCompleted && dueDate.isEqual(today);
-                            case "week":
-                                return !isCompleted && !dueDate.isBefore(today) && !dueDate.isAfter(weekFromNow);
-                            case "upcoming":
-                                return !isCompleted && dueDate.isAfter(weekFromNow);
-                            case "all":
-                                return !isCompleted;
-                            default:
-                                return true;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .collect(java.util.stream.Collectors.toList());
-            
-            // Apply sorting in backend
-            if (sortBy != null) {
-                assignments = assignments.stream()
-                    .sorted((a, b) -> {
-                        if ("dueDate".equals(sortBy)) {
-                            return a.getDueDate().compareTo(b.getDueDate());
-                        } else if ("difficulty".equals(sortBy)) {
-                            Map<String, Integer> difficultyOrder = new HashMap<>();
-                            difficultyOrder.put("HARD", 3);
-                            difficultyOrder.put("MEDIUM", 2);
-                            difficultyOrder.put("EASY", 1);
-                            
-                            int aOrder = difficultyOrder.getOrDefault(a.getDifficulty(), 0);
-                            int bOrder = difficultyOrder.getOrDefault(b.getDifficulty(), 0);
-                            return Integer.compare(bOrder, aOrder); // Descending order
-                        }
-                        return 0;
-                    })
-                    .collect(java.util.stream.Collectors.toList());
-            }
+            Page<Assignment> assignmentPage = assignmentService.searchAssignmentsForUser(
+                user, search, subjectId, subjectCode, status, sortBy, page, size);
+            List<Assignment> assignments = assignmentPage.getContent();
+            
+            // Load the student's submitted assignment ids once instead of checking per assignment
+            Set<Long> submittedIds = "STUDENT".equals(user.getRole())
+                ? submissionService.getSubmittedAssignmentIds(user)
+                : Set.of();
+            
+            HttpHeaders pageHeaders = new HttpHeaders();
+            pageHeaders.add("X-Total-Count", String.valueOf(assignmentPage.getTotalElements()));
+            pageHeaders.add("X-Total-Pages", String.valueOf(assignmentPage.getTotalPages()));
             
             // For students, add submission status to each assignment
             if ("STUDENT".equals(user.getRole())) {
@@ -168,17 +114,17 @@ public class AssignmentController {
                         assignmentMap.put("maxPoints", assignment.getMaxPoints());
                         
                         // Check if student has submitted
-                        boolean hasSubmitted = submissionService.hasSubmitted(assignment, user);
+                        boolean hasSubmitted = submittedIds.contains(assignment.getActivityId());
                         assignmentMap.put("completed", hasSubmitted);
                         
                         return assignmentMap;
                     })
                     .collect(java.util.stream.Collectors.toList());
                 
-                return ResponseEntity.ok(assignmentsWithStatus);
+                return ResponseEntity.ok().headers(pageHeaders).body(assignmentsWithStatus);
             }
             
-            return ResponseEntity.ok(assignments);
+            return ResponseEntity.ok().headers(pageHeaders).body(assignments);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error: " + e.getMessage());
@@ -213,20 +159,15 @@ public class AssignmentController {
                 
                 if (subjectOpt.isPresent()) {
                     Subject subject = subjectOpt.get();
-                    List<Enrollment> enrollments = enrollmentRepository.findAll();
-                    for (Enrollment enrollment : enrollments) {
-                        if (enrollment.getSubject().getSubjectId().equals(subjectId)) {
-                            Notification notification = new Notification(
-                                "New Assignment Created",
-                                "New assignment '" + savedAssignment.getTitle() + "' has been posted in " + 
-                                subject.getSubjectCode(),
-                                "ASSIGNMENT",
-                                savedAssignment.getActivityId()
-                            );
-                            notification.setUser(enrollment.getStudent());
-                            notificationService.createNotification(notification);
-                        }
-                    }
+                    notificationFanoutService.notifySubjectStudents(
+                        subjectId,
+                        null,
+                        "New Assignment Created",
+                        "New assignment '" + savedAssignment.getTitle() + "' has been posted in " + 
+                        subject.getSubjectCode(),
+                        "ASSIGNMENT",
+                        savedAssignment.getActivityId()
+                    );
                 }
             }
             
@@ -312,6 +253,10 @@ public class AssignmentController {
             User user = userOpt.get();
             List<Assignment> assignments = assignmentService.getAssignmentsBySubjectAndUser(subjectOpt.get(), user);
             
+            Set<Long> submittedIds = "STUDENT".equals(user.getRole())
+                ? submissionService.getSubmittedAssignmentIds(user)
+                : Set.of();
+            
             // For students, add submission status to each assignment
             if ("STUDENT".equals(user.getRole())) {
                 List<Map<String, Object>> assignmentsWithStatus = assignments.stream()
@@ -329,7 +274,7 @@ public class AssignmentController {
                         assignmentMap.put("maxPoints", assignment.getMaxPoints());
                         
                         // Check if student has submitted
-                        boolean hasSubmitted = submissionService.hasSubmitted(assignment, user);
+                        boolean hasSubmitted = submittedIds.contains(assignment.getActivityId());
                         assignmentMap.put("completed", hasSubmitted);
                         
                         return assignmentMap;
@@ -447,19 +392,25 @@ public class AssignmentController {
     @PostMapping("/upload-files")
     public ResponseEntity<?> uploadFiles(@RequestParam("files") MultipartFile[] files) {
         try {
-            List<String> fileNames = new ArrayList<>();
-            
-            for (MultipartFile file : files) {
-                if (!file.isEmpty()) {
-                    String storedFileName = fileStorageService.storeFile(file);
-                    fileNames.add(storedFileName);
-                }
-            }
+            // Files are stored concurrently; each one reports its own size, checksum or error
+            List<FileUploadResultDTO> results = fileStorageService.storeFiles(Arrays.asList(files));
+            List<String> fileNames = results.stream()
+                .filter(FileUploadResultDTO::isSuccess)
+                .map(FileUploadResultDTO::getFileName)
+                .collect(Collectors.toList());
             
             Map<String, Object> response = new HashMap<>();
             response.put("fileNames", String.join(",", fileNames));
             response.put("count", fileNames.size());
+            response.put("files", results);
             
+            if (fileNames.isEmpty() && !results.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            }
+            // Some stored, some not: the caller has to look at files[] before using fileNames
+            if (fileNames.size() < results.size()) {
+                return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(response);
+            }
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -467,24 +418,86 @@ public class AssignmentController {
         }
     }
     
-    // Download assignment file
+    // Download assignment file (supports Range / If-None-Match / If-Modified-Since)
     @GetMapping("/download/{fileName}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
+    public void downloadFile(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response) {
         try {
-            Path filePath = fileStorageService.loadFile(fileName);
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                        "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
+            String key = fileStorageService.resolveKey(fileName);
+            // Content-addressed blobs have no name of their own; the download is named after the upload
+            String downloadName = fileStorageService.getDownloadName(fileName);
+            String contentEncoding = StorageCodec.forKey(key).getContentEncoding();
+            
+            // Compressed content is sent as stored to clients that accept its encoding
+            if (contentEncoding == null || FileDownloadService.acceptsEncoding(request, contentEncoding)) {
+                // Object-store backends hand out a short-lived direct URL so the bytes skip this server
+                Optional<URI> directUrl = fileStorageService.presignedDownloadUrl(key, downloadName);
+                if (directUrl.isPresent()) {
+                    response.sendRedirect(directUrl.get().toString());
+                    return;
+                }
+                
+                Path filePath = fileStorageService.loadFile(key);
+                if (filePath != null) {
+                    fileDownloadService.serve(filePath, downloadName, false, contentEncoding, request, response);
+                    return;
+                }
+            }
+            
+            // Decoded on the fly, or a backend with neither local files nor presigned URLs: proxy the bytes
+            if (contentEncoding != null) {
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            try (InputStream in = fileStorageService.openFile(key)) {
+                fileDownloadService.stream(in, downloadName, false, response);
+            }
+        } catch (NoSuchFileException e) {
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
             }
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+    
+    // Thumbnail (images) or first lines (text files) of an uploaded file, for chat and attachment previews.
+    // Generated in the background after upload; anything missing is generated on first request.
+    @GetMapping("/preview/{fileName}")
+    public void previewFile(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response) {
+        try {
+            String storedName = fileStorageService.getStoredName(fileName);
+            Optional<String> previewKey = previewService.findOrGenerate(
+                fileStorageService.resolveKey(fileName), storedName, null);
+            if (!previewKey.isPresent()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "No preview available");
+                return;
+            }
+            
+            Optional<URI> directUrl = previewService.presignedUrl(previewKey.get());
+            if (directUrl.isPresent()) {
+                response.sendRedirect(directUrl.get().toString());
+                return;
+            }
+            
+            String previewName = storedName + (previewKey.get().endsWith(PreviewService.THUMBNAIL_SUFFIX)
+                ? PreviewService.THUMBNAIL_SUFFIX : PreviewService.TEXT_SUFFIX);
+            Path previewPath = previewService.loadPreview(previewKey.get());
+            if (previewPath == null) {
+                try (InputStream in = previewService.openPreview(previewKey.get())) {
+                    fileDownloadService.stream(in, previewName, true, response);
+                }
+                return;
+            }
+            fileDownloadService.serve(previewPath, previewName, true, request, response);
+        } catch (NoSuchFileException e) {
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+            }
+        } catch (Exception e) {
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
         }
     }
     
@@ -1,8 +1,13 @@
 package com.core.echolearn.controller;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +18,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import com.core.echolearn.dto.CalendarEventDTO; // Add these
 import com.core.echolearn.dto.CreateEventRequest;
 import com.core.echolearn.entity.Calendar;
 import com.core.echolearn.entity.User;
+import com.core.echolearn.service.CalendarExportService;
 import com.core.echolearn.service.CalendarService;
 import com.core.echolearn.service.UserService;
 
@@ -31,12 +41,43 @@ public class CalendarController {
     @Autowired
     private UserService userService; 
 
+    @Autowired
+    private CalendarExportService calendarExportService;
+
+    // Optional window: from (inclusive) / to (exclusive) as ISO dates, e.g. the visible month
     @GetMapping("/events")
-    public ResponseEntity<List<CalendarEventDTO>> getCalendarEvents(@RequestParam("userId") Long userId) {
+    public ResponseEntity<List<CalendarEventDTO>> getCalendarEvents(
+        @RequestParam("userId") Long userId,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
         User currentUser = userService.findById(userId).orElse(null); 
         if (currentUser == null) return ResponseEntity.status(404).build(); 
 
-        return ResponseEntity.ok(calendarService.getFullCalendarForUser(currentUser));
+        try {
+            return ResponseEntity.ok(calendarService.getCalendarForUser(currentUser, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).build();
+        }
+    }
+
+    // iCalendar subscription feed; polling clients get 304 until the user's calendar changes
+    @GetMapping("/export.ics")
+    public void exportCalendar(@RequestParam("userId") Long userId, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        if (!userService.findById(userId).isPresent()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "User not found");
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(calendarExportService.etag(userId))) {
+            return;
+        }
+
+        response.setContentType("text/calendar;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"echolearn.ics\"");
+        calendarExportService.writeCalendar(userId, response.getWriter());
     }
 
     @PostMapping("/create")
@@ -49,8 +90,12 @@ public class CalendarController {
             return ResponseEntity.status(404).body("User not found");
         }
 
-        Calendar createdEvent = calendarService.createEvent(request, currentUser);
-        return ResponseEntity.ok(createdEvent);
+        try {
+            Calendar createdEvent = calendarService.createEvent(request, currentUser);
+            return ResponseEntity.ok(createdEvent);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        }
     }
 
     // ⭐️ NEW: Update Endpoint
@@ -66,6 +111,8 @@ public class CalendarController {
         try {
             Calendar updated = calendarService.updateEvent(eventId, request, currentUser);
             return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(403).body(e.getMessage());
         }
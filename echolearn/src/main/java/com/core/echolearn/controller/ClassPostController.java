@@ -22,11 +22,10 @@ import com.core.echolearn.entity.ClassPost;
 import com.core.echolearn.entity.ClassReply;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.entity.Notification;
-import com.core.echolearn.entity.Enrollment;
 import com.core.echolearn.service.ClassPostService;
 import com.core.echolearn.service.UserService;
+import com.core.echolearn.service.NotificationFanoutService;
 import com.core.echolearn.service.NotificationService;
-import com.core.echolearn.repository.EnrollmentRepository;
 
 @RestController
 @RequestMapping("/api/classes/{subjectId}/posts")
@@ -43,7 +42,7 @@ public class ClassPostController {
     private NotificationService notificationService;
     
     @Autowired
-    private EnrollmentRepository enrollmentRepository;
+    private NotificationFanoutService notificationFanoutService;
     
     private Map<String, Object> createSuccessResponse(Object data) {
         Map<String, Object> response = new HashMap<>();
@@ -90,21 +89,15 @@ public class ClassPostController {
             
             ClassPost savedPost = classPostService.createPost(subjectId, authorId, content);
             
-            // Create notifications for all users in the subject except the author
-            List<Enrollment> enrollments = enrollmentRepository.findAll();
-            for (Enrollment enrollment : enrollments) {
-                if (enrollment.getSubject().getSubjectId().equals(subjectId) && 
-                    !enrollment.getStudent().getId().equals(authorId)) {
-                    Notification notification = new Notification(
-                        "New Class Post",
-                        authorOpt.get().getUsername() + " posted in " + enrollment.getSubject().getSubjectCode(),
-                        "POST",
-                        subjectId
-                    );
-                    notification.setUser(enrollment.getStudent());
-                    notificationService.createNotification(notification);
-                }
-            }
+            // Notify all students in the subject except the author, off the request thread
+            notificationFanoutService.notifySubjectStudents(
+                subjectId,
+                authorId,
+                "New Class Post",
+                authorOpt.get().getUsername() + " posted in " + savedPost.getSubject().getSubjectCode(),
+                "POST",
+                subjectId
+            );
             
             return ResponseEntity.status(HttpStatus.CREATED).body(createSuccessResponse(savedPost));
             
@@ -1,5 +1,6 @@
 package com.core.echolearn.controller;
 
+import com.core.echolearn.dto.ConversationInboxDTO;
 import com.core.echolearn.entity.Conversation;
 import com.core.echolearn.entity.Message;
 import com.core.echolearn.entity.SideChat;
@@ -10,6 +11,7 @@ import com.core.echolearn.service.UserService;
 import com.core.echolearn.service.NotificationService;
 import com.core.echolearn.service.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -44,26 +46,22 @@ public class ConversationController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
             }
             
-            List<Conversation> conversations = conversationService.getUserConversations(userOpt.get());
+            List<ConversationInboxDTO> inbox = conversationService.getUserInbox(userOpt.get());
             
             // Transform to DTO for frontend
-            List<Map<String, Object>> conversationDTOs = conversations.stream().map(conv -> {
+            List<Map<String, Object>> conversationDTOs = inbox.stream().map(conv -> {
                 Map<String, Object> dto = new HashMap<>();
                 dto.put("id", conv.getConversationId());
+                dto.put("userId", conv.getOtherUserId());
+                dto.put("name", conv.getOtherUsername());
+                dto.put("username", conv.getOtherUsername());
+                dto.put("avatar", conv.getOtherUsername().substring(0, 1).toUpperCase());
+                dto.put("unreadCount", conv.getUnreadCount());
                 
-                // Determine the other user in the conversation
-                User otherUser = conv.getUser1().getId().equals(userId) ? conv.getUser2() : conv.getUser1();
-                dto.put("userId", otherUser.getId());
-                dto.put("name", otherUser.getUsername());
-                dto.put("username", otherUser.getUsername());
-                dto.put("avatar", otherUser.getUsername().substring(0, 1).toUpperCase());
-                
-                // Get last message
-                List<Message> messages = conversationService.getConversationMessages(conv.getConversationId());
-                if (!messages.isEmpty()) {
-                    Message lastMsg = messages.get(messages.size() - 1);
-                    dto.put("lastMessage", lastMsg.getContent());
-                    dto.put("time", lastMsg.getTimestamp());
+                if (conv.getLastMessagePreview() != null) {
+                    dto.put("lastMessage", conv.getLastMessagePreview());
+                    dto.put("lastMessageSenderId", conv.getLastMessageSenderId());
+                    dto.put("time", conv.getLastMessageAt());
                 } else {
                     dto.put("lastMessage", "No messages yet");
                     dto.put("time", conv.getCreatedAt());
@@ -106,13 +104,39 @@ public class ConversationController {
         }
     }
     
+    // Mark a conversation as read by a user
+    @PutMapping("/{conversationId}/read")
+    public ResponseEntity<?> markConversationRead(@PathVariable Long conversationId, @RequestParam Long userId) {
+        try {
+            Optional<User> userOpt = userService.findById(userId);
+            if (!userOpt.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
+            
+            boolean updated = conversationService.markConversationRead(conversationId, userOpt.get());
+            
+            if (updated) {
+                return ResponseEntity.ok("Conversation marked as read");
+            }
+            
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Conversation not found");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+    
     // Get messages in a conversation
     @GetMapping("/{conversationId}/messages")
-    public ResponseEntity<?> getMessages(@PathVariable Long conversationId) {
+    public ResponseEntity<?> getMessages(
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Message> messages = conversationService.getConversationMessages(conversationId);
+            Slice<Message> page = conversationService.getConversationMessagesPage(conversationId, before, after, limit);
             
-            List<Map<String, Object>> messageDTOs = messages.stream().map(msg -> {
+            List<Map<String, Object>> messageDTOs = page.getContent().stream().map(msg -> {
                 Map<String, Object> dto = new HashMap<>();
                 dto.put("id", msg.getMessageId());
                 dto.put("senderId", msg.getSender().getId());
@@ -132,7 +156,7 @@ public class ConversationController {
                 return dto;
             }).collect(Collectors.toList());
             
-            return ResponseEntity.ok(messageDTOs);
+            return withCursorHeaders(ResponseEntity.ok(), page, after != null).body(messageDTOs);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error: " + e.getMessage());
@@ -389,11 +413,15 @@ public class ConversationController {
     
     // Get messages in a side chat
     @GetMapping("/sidechats/{sideChatId}/messages")
-    public ResponseEntity<?> getSideChatMessages(@PathVariable Long sideChatId) {
+    public ResponseEntity<?> getSideChatMessages(
+            @PathVariable Long sideChatId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Message> messages = conversationService.getSideChatMessages(sideChatId);
+            Slice<Message> page = conversationService.getSideChatMessagesPage(sideChatId, before, after, limit);
             
-            List<Map<String, Object>> messageDTOs = messages.stream().map(msg -> {
+            List<Map<String, Object>> messageDTOs = page.getContent().stream().map(msg -> {
                 Map<String, Object> dto = new HashMap<>();
                 dto.put("id", msg.getMessageId());
                 dto.put("senderId", msg.getSender().getId());
@@ -405,7 +433,7 @@ public class ConversationController {
                 return dto;
             }).collect(Collectors.toList());
             
-            return ResponseEntity.ok(messageDTOs);
+            return withCursorHeaders(ResponseEntity.ok(), page, after != null).body(messageDTOs);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error: " + e.getMessage());
@@ -444,4 +472,15 @@ public class ConversationController {
                 .body("Error: " + e.getMessage());
         }
     }
+    
+    // Expose the keyset cursor: older pages continue with ?before=, newer pages with ?after=
+    private ResponseEntity.BodyBuilder withCursorHeaders(ResponseEntity.BodyBuilder builder, Slice<Message> page, boolean forward) {
+        builder.header("X-Has-More", String.valueOf(page.hasNext()));
+        if (page.hasNext() && page.hasContent()) {
+            List<Message> content = page.getContent();
+            Message edge = forward ? content.get(content.size() - 1) : content.get(0);
+            builder.header("X-Next-Cursor", String.valueOf(edge.getMessageId()));
+        }
+        return builder;
+    }
 }
@@ -1,14 +1,21 @@
 package com.core.echolearn.controller;
 
+import com.core.echolearn.dto.NotificationDTO;
 import com.core.echolearn.entity.Notification;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.service.NotificationService;
+import com.core.echolearn.service.NotificationStreamService;
 import com.core.echolearn.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,20 +29,39 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
     @Autowired
     private UserService userService;
     
+    // Newest first, one page at a time: pass X-Next-Cursor back as ?cursor= for the next page.
+    // The first page also carries X-Total-Count.
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getNotificationsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getNotificationsByUser(@PathVariable Long userId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit) {
         try {
-            Optional<User> userOpt = userService.findById(userId);
-            if (!userOpt.isPresent()) {
+            if (!userService.findById(userId).isPresent()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("User not found");
             }
             
-            List<Notification> notifications = notificationService.getNotificationsByUser(userOpt.get());
-            return ResponseEntity.ok(notifications);
+            Slice<NotificationDTO> page = notificationService.getNotificationFeed(userId, cursor, limit);
+            
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header("X-Has-More", String.valueOf(page.hasNext()));
+            if (page.hasNext() && page.hasContent()) {
+                List<NotificationDTO> content = page.getContent();
+                builder.header("X-Next-Cursor", notificationService.feedCursor(content.get(content.size() - 1)));
+            }
+            if (cursor == null || cursor.isBlank()) {
+                builder.header("X-Total-Count", String.valueOf(notificationService.getNotificationCount(userId)));
+            }
+            return builder.body(page.getContent());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error: " + e.getMessage());
@@ -65,6 +91,40 @@ public class NotificationController {
         }
     }
     
+    // Badge poll: answered from the counter cache, 304 when the count is unchanged
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<?> getUnreadCount(@PathVariable Long userId,
+                                            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            long unreadCount = notificationService.getUnreadCount(userId);
+            String etag = "\"" + unreadCount + "\"";
+            
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("unreadCount", unreadCount);
+            
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+    
+    // Live updates: "notification" events for new items, "unread-count" events when the badge changes
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@PathVariable Long userId) {
+        return notificationStreamService.subscribe(userId);
+    }
+    
     @PostMapping
     public ResponseEntity<?> createNotification(@RequestBody Notification notification) {
         try {
@@ -127,6 +187,29 @@ public class NotificationController {
         }
     }
     
+    // Clear read notifications, optionally only those older than the given number of days
+    @DeleteMapping("/user/{userId}/read")
+    public ResponseEntity<?> clearReadNotifications(@PathVariable Long userId,
+                                                    @RequestParam(defaultValue = "0") int olderThanDays) {
+        try {
+            Optional<User> userOpt = userService.findById(userId);
+            if (!userOpt.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("User not found");
+            }
+            
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(Math.max(0, olderThanDays));
+            int deleted = notificationService.clearReadNotifications(userOpt.get(), cutoff);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("deleted", deleted);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteNotification(@PathVariable Long id) {
         try {
@@ -0,0 +1,120 @@
+package com.core.echolearn.controller;
+
+import com.core.echolearn.dto.FileUploadResultDTO;
+import com.core.echolearn.entity.UploadSession;
+import com.core.echolearn.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+// Chunked, resumable uploads for files larger than the single-request multipart limit
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "http://localhost:3000")
+public class UploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    // Start an upload: { fileName, size, contentType }
+    @PostMapping
+    public ResponseEntity<?> initUpload(@RequestBody Map<String, Object> payload) {
+        try {
+            String fileName = (String) payload.get("fileName");
+            String contentType = (String) payload.get("contentType");
+            long size = Long.parseLong(payload.get("size").toString());
+
+            UploadSession session = chunkedUploadService.init(fileName, contentType, size);
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(session));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    // Resume point after a dropped connection
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<?> getUploadStatus(@PathVariable String uploadId) {
+        Optional<UploadSession> session = chunkedUploadService.findSession(uploadId);
+        if (!session.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Upload not found");
+        }
+        return ResponseEntity.ok(toResponse(session.get()));
+    }
+
+    // Raw chunk bytes in the request body (application/octet-stream), written at the given offset
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String uploadId,
+                                         @RequestParam long offset,
+                                         HttpServletRequest request) {
+        try {
+            UploadSession session = chunkedUploadService.writeChunk(uploadId, offset, request.getInputStream());
+            return ResponseEntity.ok(toResponse(session));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    // Returns the same "uuid|originalFileName" reference as the multipart upload endpoints
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String uploadId) {
+        try {
+            FileUploadResultDTO result = chunkedUploadService.complete(uploadId);
+            return ResponseEntity.ok(result);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable String uploadId) {
+        try {
+            chunkedUploadService.abort(uploadId);
+            return ResponseEntity.ok("Upload cancelled");
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error: " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> toResponse(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("uploadId", session.getUploadId());
+        response.put("fileName", session.getOriginalFileName());
+        response.put("totalSize", session.getTotalSize());
+        response.put("receivedBytes", session.getReceivedBytes());
+        response.put("chunkSize", ChunkedUploadService.MAX_CHUNK_SIZE);
+        return response;
+    }
+}
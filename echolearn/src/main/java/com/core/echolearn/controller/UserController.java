@@ -1,74 +1,56 @@
 package com.core.echolearn.controller;
 
 import com.core.echolearn.dto.UserDTO;
+import com.core.echolearn.dto.UserSummaryDTO;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "http://localhost:3000")
 public class UserController {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private UserService userService;
     
     // Search users by query (username or email)
     @GetMapping("/search")
-    public ResponseEntity<?> searchUsers(@RequestParam String query, @RequestParam Long currentUserId) {
+    public ResponseEntity<?> searchUsers(
+            @RequestParam String query,
+            @RequestParam Long currentUserId,
+            @RequestParam(required = false, defaultValue = "20") int limit) {
         try {
-            List<User> allUsers = userService.getAllUsers();
-            
-            // Filter users by query and exclude current user
-            List<Map<String, Object>> userDTOs = allUsers.stream()
-                .filter(u -> !u.getId().equals(currentUserId)) // Exclude current user
-                .filter(u -> 
-                    u.getUsername().toLowerCase().contains(query.toLowerCase()) ||
-                    u.getEmail().toLowerCase().contains(query.toLowerCase())
-                )
-                .map(u -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("id", u.getId());
-                    dto.put("username", u.getUsername());
-                    dto.put("email", u.getEmail());
-                    dto.put("role", u.getRole());
-                    return dto;
-                })
-                .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(userDTOs);
+            int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<UserSummaryDTO> users = userService.searchUsers(query.trim(), currentUserId, boundedLimit);
+            return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error: " + e.getMessage());
         }
     }
     
-    // Get all users except current user
+    // Get all users except current user, one page at a time
     @GetMapping("/all")
-    public ResponseEntity<?> getAllUsers(@RequestParam Long currentUserId) {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam Long currentUserId,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "100") int size) {
         try {
-            List<User> allUsers = userService.getAllUsers();
-            
-            // Exclude current user and map to DTO
-            List<Map<String, Object>> userDTOs = allUsers.stream()
-                .filter(u -> !u.getId().equals(currentUserId))
-                .map(u -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("id", u.getId());
-                    dto.put("username", u.getUsername());
-                    dto.put("email", u.getEmail());
-                    dto.put("role", u.getRole());
-                    return dto;
-                })
-                .collect(Collectors.toList());
+            int boundedSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            Slice<UserSummaryDTO> users = userService.getUserSummaries(currentUserId, Math.max(page, 0), boundedSize);
             
-            return ResponseEntity.ok(userDTOs);
+            return ResponseEntity.ok()
+                .header("X-Has-More", String.valueOf(users.hasNext()))
+                .body(users.getContent());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error: " + e.getMessage());
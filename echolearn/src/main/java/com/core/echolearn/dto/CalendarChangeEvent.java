@@ -0,0 +1,54 @@
+package com.core.echolearn.dto;
+
+// Application event published when something shown on calendars changes; drives the calendar_feed read model
+public class CalendarChangeEvent {
+
+    public static final String EVENT_SAVED = "EVENT_SAVED";
+    public static final String EVENT_DELETED = "EVENT_DELETED";
+    public static final String ASSIGNMENT_SAVED = "ASSIGNMENT_SAVED";
+    public static final String ASSIGNMENT_DELETED = "ASSIGNMENT_DELETED";
+    public static final String ENROLLMENT_CHANGED = "ENROLLMENT_CHANGED";
+
+    private final String kind;
+    private final Long sourceId;
+    private final Long userId;
+
+    private CalendarChangeEvent(String kind, Long sourceId, Long userId) {
+        this.kind = kind;
+        this.sourceId = sourceId;
+        this.userId = userId;
+    }
+
+    public static CalendarChangeEvent eventSaved(Long eventId) {
+        return new CalendarChangeEvent(EVENT_SAVED, eventId, null);
+    }
+
+    public static CalendarChangeEvent eventDeleted(Long eventId) {
+        return new CalendarChangeEvent(EVENT_DELETED, eventId, null);
+    }
+
+    public static CalendarChangeEvent assignmentSaved(Long assignmentId) {
+        return new CalendarChangeEvent(ASSIGNMENT_SAVED, assignmentId, null);
+    }
+
+    public static CalendarChangeEvent assignmentDeleted(Long assignmentId) {
+        return new CalendarChangeEvent(ASSIGNMENT_DELETED, assignmentId, null);
+    }
+
+    // sourceId is the subject the student joined or left
+    public static CalendarChangeEvent enrollmentChanged(Long studentId, Long subjectId) {
+        return new CalendarChangeEvent(ENROLLMENT_CHANGED, subjectId, studentId);
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
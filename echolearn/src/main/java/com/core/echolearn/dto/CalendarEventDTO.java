@@ -1,5 +1,6 @@
 package com.core.echolearn.dto;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public class CalendarEventDTO {
@@ -25,6 +26,12 @@ public class CalendarEventDTO {
         this.description = description;
     }
 
+    // Assignment due date, shown as a one hour slot at the start of the day (JPQL projection)
+    public CalendarEventDTO(Long id, String title, LocalDate dueDate, Boolean completed, String description) {
+        this(id, title + " (Due)", dueDate.atStartOfDay(), dueDate.atStartOfDay().plusHours(1),
+            "ASSIGNMENT", completed, null, description);
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,95 @@
+package com.core.echolearn.dto;
+
+import java.time.LocalDateTime;
+
+// Read model for the conversation inbox, built by a single JPQL constructor query
+public class ConversationInboxDTO {
+    private Long conversationId;
+    private Long otherUserId;
+    private String otherUsername;
+    private String lastMessagePreview;
+    private Long lastMessageSenderId;
+    private LocalDateTime lastMessageAt;
+    private LocalDateTime createdAt;
+    private Long unreadCount;
+
+    public ConversationInboxDTO() {
+    }
+
+    public ConversationInboxDTO(Long conversationId, Long otherUserId, String otherUsername,
+                                String lastMessagePreview, Long lastMessageSenderId,
+                                LocalDateTime lastMessageAt, LocalDateTime createdAt, Long unreadCount) {
+        this.conversationId = conversationId;
+        this.otherUserId = otherUserId;
+        this.otherUsername = otherUsername;
+        this.lastMessagePreview = lastMessagePreview;
+        this.lastMessageSenderId = lastMessageSenderId;
+        this.lastMessageAt = lastMessageAt;
+        this.createdAt = createdAt;
+        this.unreadCount = unreadCount;
+    }
+
+    public Long getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(Long conversationId) {
+        this.conversationId = conversationId;
+    }
+
+    public Long getOtherUserId() {
+        return otherUserId;
+    }
+
+    public void setOtherUserId(Long otherUserId) {
+        this.otherUserId = otherUserId;
+    }
+
+    public String getOtherUsername() {
+        return otherUsername;
+    }
+
+    public void setOtherUsername(String otherUsername) {
+        this.otherUsername = otherUsername;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public Long getLastMessageSenderId() {
+        return lastMessageSenderId;
+    }
+
+    public void setLastMessageSenderId(Long lastMessageSenderId) {
+        this.lastMessageSenderId = lastMessageSenderId;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(Long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
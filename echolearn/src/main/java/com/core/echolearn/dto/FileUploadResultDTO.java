@@ -0,0 +1,80 @@
+package com.core.echolearn.dto;
+
+// Outcome of storing one uploaded file; fileName is the "uuid.ext|originalFileName" reference on success
+public class FileUploadResultDTO {
+    private String originalFileName;
+    private String fileName;
+    private Long size;
+    private String sha256;
+    private boolean success;
+    private String error;
+
+    public FileUploadResultDTO() {
+    }
+
+    public static FileUploadResultDTO stored(String originalFileName, String fileName, long size, String sha256) {
+        FileUploadResultDTO result = new FileUploadResultDTO();
+        result.originalFileName = originalFileName;
+        result.fileName = fileName;
+        result.size = size;
+        result.sha256 = sha256;
+        result.success = true;
+        return result;
+    }
+
+    public static FileUploadResultDTO failed(String originalFileName, String error) {
+        FileUploadResultDTO result = new FileUploadResultDTO();
+        result.originalFileName = originalFileName;
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+
+    public void setOriginalFileName(String originalFileName) {
+        this.originalFileName = originalFileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,61 @@
+package com.core.echolearn.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Application event published when an assignment, submission or message stops referring to uploaded files;
+// FileStorageService deletes them once the change has committed
+public class FilesReleasedEvent {
+
+    // Stored names are a random UUID plus the original extension; anything else in a list is not ours to delete
+    private static final Pattern STORED_NAME = Pattern.compile(
+        "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.[^|,/\\\\]*)?");
+
+    private final List<String> storedNames;
+
+    private FilesReleasedEvent(List<String> storedNames) {
+        this.storedNames = storedNames;
+    }
+
+    // Every file in the given comma-separated "uuid|originalFileName" lists (null lists are skipped)
+    public static FilesReleasedEvent of(String... fileNameLists) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String fileNames : fileNameLists) {
+            names.addAll(storedNames(fileNames));
+        }
+        return new FilesReleasedEvent(new ArrayList<>(names));
+    }
+
+    // Files listed before an edit that are no longer listed after it
+    public static FilesReleasedEvent removed(String before, String after) {
+        Set<String> names = storedNames(before);
+        names.removeAll(storedNames(after));
+        return new FilesReleasedEvent(new ArrayList<>(names));
+    }
+
+    private static Set<String> storedNames(String fileNames) {
+        Set<String> names = new LinkedHashSet<>();
+        if (fileNames == null) {
+            return names;
+        }
+        for (String entry : Arrays.asList(fileNames.split(","))) {
+            String storedName = entry.trim().split("\\|")[0];
+            if (STORED_NAME.matcher(storedName).matches()) {
+                names.add(storedName);
+            }
+        }
+        return names;
+    }
+
+    public boolean isEmpty() {
+        return storedNames.isEmpty();
+    }
+
+    public List<String> getStoredNames() {
+        return storedNames;
+    }
+}
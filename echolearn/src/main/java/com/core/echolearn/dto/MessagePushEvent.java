@@ -0,0 +1,22 @@
+package com.core.echolearn.dto;
+
+import java.util.Map;
+
+// Application event carrying a message payload to be broadcast on a STOMP topic
+public class MessagePushEvent {
+    private final String destination;
+    private final Map<String, Object> payload;
+    
+    public MessagePushEvent(String destination, Map<String, Object> payload) {
+        this.destination = destination;
+        this.payload = payload;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public Map<String, Object> getPayload() {
+        return payload;
+    }
+}
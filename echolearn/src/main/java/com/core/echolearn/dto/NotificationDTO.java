@@ -0,0 +1,94 @@
+package com.core.echolearn.dto;
+
+import java.time.LocalDateTime;
+
+// Notification feed row without the embedded User, built by a JPQL constructor query
+public class NotificationDTO {
+    private Long notifId;
+    private String title;
+    private String message;
+    private String type;
+    private String status;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+    private Long referenceId;
+
+    public NotificationDTO() {
+    }
+
+    public NotificationDTO(Long notifId, String title, String message, String type, String status,
+                           Boolean isRead, LocalDateTime createdAt, Long referenceId) {
+        this.notifId = notifId;
+        this.title = title;
+        this.message = message;
+        this.type = type;
+        this.status = status;
+        this.isRead = isRead;
+        this.createdAt = createdAt;
+        this.referenceId = referenceId;
+    }
+
+    public Long getNotifId() {
+        return notifId;
+    }
+
+    public void setNotifId(Long notifId) {
+        this.notifId = notifId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Boolean getIsRead() {
+        return isRead;
+    }
+
+    public void setIsRead(Boolean isRead) {
+        this.isRead = isRead;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(Long referenceId) {
+        this.referenceId = referenceId;
+    }
+}
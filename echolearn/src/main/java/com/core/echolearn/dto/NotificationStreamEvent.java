@@ -0,0 +1,26 @@
+package com.core.echolearn.dto;
+
+// Application event carrying a notification update to one user's SSE subscribers
+public class NotificationStreamEvent {
+    private final Long userId;
+    private final String name;
+    private final Object payload;
+    
+    public NotificationStreamEvent(Long userId, String name, Object payload) {
+        this.userId = userId;
+        this.name = name;
+        this.payload = payload;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Object getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,51 @@
+package com.core.echolearn.dto;
+
+// Lightweight user projection for pickers and search (no password or audit columns)
+public class UserSummaryDTO {
+    private Long id;
+    private String username;
+    private String email;
+    private String role;
+    
+    public UserSummaryDTO() {
+    }
+    
+    public UserSummaryDTO(Long id, String username, String email, String role) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
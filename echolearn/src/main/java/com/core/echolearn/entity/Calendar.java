@@ -24,6 +24,7 @@ public class Calendar {
     private LocalDateTime date; // Matches ERD
     private LocalDateTime reminderTime; // Matches ERD
     private LocalDateTime endTime;
+    private LocalDateTime reminderSentAt; // Set once the reminder notification is sent
 
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
@@ -44,6 +45,8 @@ public class Calendar {
     public void setDate(LocalDateTime date) { this.date = date; }
     public LocalDateTime getReminderTime() { return reminderTime; }
     public void setReminderTime(LocalDateTime reminderTime) { this.reminderTime = reminderTime; }
+    public LocalDateTime getReminderSentAt() { return reminderSentAt; }
+    public void setReminderSentAt(LocalDateTime reminderSentAt) { this.reminderSentAt = reminderSentAt; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
     public Subject getSubject() { return subject; }
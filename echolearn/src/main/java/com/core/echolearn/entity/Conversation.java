@@ -9,6 +9,8 @@ import java.util.List;
 @Table(name = "conversations")
 public class Conversation {
     
+    private static final int PREVIEW_LENGTH = 255;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long conversationId;
@@ -27,6 +29,22 @@ public class Conversation {
     @Column(nullable = false)
     private LocalDateTime lastMessageAt;
     
+    // Denormalized inbox fields, kept in sync by ConversationService
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+    
+    @Column(name = "last_message_preview")
+    private String lastMessagePreview;
+    
+    @Column(name = "last_message_sender_id")
+    private Long lastMessageSenderId;
+    
+    @Column(name = "user1_last_read_at")
+    private LocalDateTime user1LastReadAt;
+    
+    @Column(name = "user2_last_read_at")
+    private LocalDateTime user2LastReadAt;
+    
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Message> messages = new ArrayList<>();
     
@@ -86,6 +104,46 @@ public class Conversation {
         this.lastMessageAt = lastMessageAt;
     }
     
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+    
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+    
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+    
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+    
+    public Long getLastMessageSenderId() {
+        return lastMessageSenderId;
+    }
+    
+    public void setLastMessageSenderId(Long lastMessageSenderId) {
+        this.lastMessageSenderId = lastMessageSenderId;
+    }
+    
+    public LocalDateTime getUser1LastReadAt() {
+        return user1LastReadAt;
+    }
+    
+    public void setUser1LastReadAt(LocalDateTime user1LastReadAt) {
+        this.user1LastReadAt = user1LastReadAt;
+    }
+    
+    public LocalDateTime getUser2LastReadAt() {
+        return user2LastReadAt;
+    }
+    
+    public void setUser2LastReadAt(LocalDateTime user2LastReadAt) {
+        this.user2LastReadAt = user2LastReadAt;
+    }
+    
     public List<Message> getMessages() {
         return messages;
     }
@@ -101,4 +159,34 @@ public class Conversation {
     public void setSideChats(List<SideChat> sideChats) {
         this.sideChats = sideChats;
     }
+    
+    // Business methods
+    public void recordLastMessage(Message message) {
+        this.lastMessageId = message.getMessageId();
+        this.lastMessageSenderId = message.getSender().getId();
+        this.lastMessagePreview = toPreview(message.getContent());
+        this.lastMessageAt = message.getTimestamp();
+        markReadBy(message.getSender(), message.getTimestamp());
+    }
+    
+    public void refreshLastMessagePreview(Message message) {
+        if (message.getMessageId() != null && message.getMessageId().equals(lastMessageId)) {
+            this.lastMessagePreview = toPreview(message.getContent());
+        }
+    }
+    
+    public void markReadBy(User user, LocalDateTime readAt) {
+        if (user1 != null && user1.getId().equals(user.getId())) {
+            this.user1LastReadAt = readAt;
+        } else if (user2 != null && user2.getId().equals(user.getId())) {
+            this.user2LastReadAt = readAt;
+        }
+    }
+    
+    private static String toPreview(String content) {
+        if (content == null) {
+            return null;
+        }
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+    }
 }
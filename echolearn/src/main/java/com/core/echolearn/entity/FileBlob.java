@@ -0,0 +1,104 @@
+package com.core.echolearn.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// One stored copy of some file content, addressed by its SHA-256; refCount counts the StoredFiles pointing at it
+@Entity
+@Table(name = "file_blobs")
+public class FileBlob implements Persistable<String> {
+    
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+    
+    @Column(nullable = false)
+    private Long size;
+    
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+    
+    // StorageCodec name; null means the content is stored exactly as uploaded
+    @Column(length = 16)
+    private String codec;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Assigned ids: save() must always INSERT (never merge over a row another upload just created)
+    @Transient
+    private boolean isNew = true;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+    
+    @Override
+    public String getId() {
+        return hash;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    public FileBlob() {
+    }
+    
+    public FileBlob(String hash, Long size) {
+        this.hash = hash;
+        this.size = size;
+        this.refCount = 1;
+    }
+    
+    // Getters and Setters
+    public String getHash() {
+        return hash;
+    }
+    
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+    
+    public Long getSize() {
+        return size;
+    }
+    
+    public void setSize(Long size) {
+        this.size = size;
+    }
+    
+    public Integer getRefCount() {
+        return refCount;
+    }
+    
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getCodec() {
+        return codec;
+    }
+    
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+}
@@ -7,8 +7,13 @@ import java.time.LocalDateTime;
 @Table(name = "notifications")
 public class Notification {
     
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Table-based ids (not IDENTITY) so Hibernate can batch inserts during fan-out
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_id")
+    @TableGenerator(name = "notification_id", table = "id_generators", pkColumnValue = "notifications",
+                    allocationSize = ID_ALLOCATION_SIZE)
     private Long notifId;
     
     @Column(nullable = false)
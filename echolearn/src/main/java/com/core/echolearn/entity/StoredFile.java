@@ -0,0 +1,94 @@
+package com.core.echolearn.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Maps an upload's public name (the "uuid.ext" part of "uuid.ext|originalFileName") to its content blob
+@Entity
+@Table(name = "stored_files")
+public class StoredFile {
+    
+    @Id
+    @Column(name = "stored_name")
+    private String storedName;
+    
+    @Column(name = "blob_hash", nullable = false, length = 64)
+    private String blobHash;
+    
+    @Column(name = "original_file_name")
+    private String originalFileName;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    @Column(nullable = false)
+    private Long size;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public StoredFile() {
+    }
+    
+    public StoredFile(String storedName, String blobHash, String originalFileName, String contentType, Long size) {
+        this.storedName = storedName;
+        this.blobHash = blobHash;
+        this.originalFileName = originalFileName;
+        this.contentType = contentType;
+        this.size = size;
+    }
+    
+    // Getters and Setters
+    public String getStoredName() {
+        return storedName;
+    }
+    
+    public void setStoredName(String storedName) {
+        this.storedName = storedName;
+    }
+    
+    public String getBlobHash() {
+        return blobHash;
+    }
+    
+    public void setBlobHash(String blobHash) {
+        this.blobHash = blobHash;
+    }
+    
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+    
+    public void setOriginalFileName(String originalFileName) {
+        this.originalFileName = originalFileName;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Long getSize() {
+        return size;
+    }
+    
+    public void setSize(Long size) {
+        this.size = size;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
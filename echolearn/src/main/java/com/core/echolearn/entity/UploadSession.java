@@ -0,0 +1,112 @@
+package com.core.echolearn.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// State of one chunked upload; bytes live in a temp file until the upload is completed
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession {
+    
+    @Id
+    @Column(name = "upload_id", length = 36)
+    private String uploadId;
+    
+    @Column(name = "original_file_name", nullable = false)
+    private String originalFileName;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+    
+    // Contiguous bytes written from offset 0; the next chunk must start at or before this
+    @Column(name = "received_bytes", nullable = false)
+    private Long receivedBytes;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public UploadSession() {
+    }
+    
+    public UploadSession(String uploadId, String originalFileName, String contentType, Long totalSize) {
+        this.uploadId = uploadId;
+        this.originalFileName = originalFileName;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.receivedBytes = 0L;
+    }
+    
+    // Getters and Setters
+    public String getUploadId() {
+        return uploadId;
+    }
+    
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+    
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+    
+    public void setOriginalFileName(String originalFileName) {
+        this.originalFileName = originalFileName;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Long getTotalSize() {
+        return totalSize;
+    }
+    
+    public void setTotalSize(Long totalSize) {
+        this.totalSize = totalSize;
+    }
+    
+    public Long getReceivedBytes() {
+        return receivedBytes;
+    }
+    
+    public void setReceivedBytes(Long receivedBytes) {
+        this.receivedBytes = receivedBytes;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -4,16 +4,18 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.core.echolearn.dto.CalendarEventDTO;
 import com.core.echolearn.entity.Assignment;
 import com.core.echolearn.entity.Subject;
 import com.core.echolearn.entity.User;
 
 @Repository
-public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
+public interface AssignmentRepository extends JpaRepository<Assignment, Long>, JpaSpecificationExecutor<Assignment> {
     
     List<Assignment> findByUser(User user);
 
@@ -34,14 +36,30 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findBySubjectAndUserOrderByDueDateAsc(Subject subject, User user);
     
     // Get assignments for a student: assignments created by teacher (user=null) OR assigned to student
-    @Query("SELECT a FROM Assignment a WHERE a.subject = :subject AND (a.user IS NULL OR a.user = :user) ORDER BY a.dueDate ASC")
+    @Query("SELECT a FROM Assignment a JOIN FETCH a.subject s JOIN FETCH s.teacher LEFT JOIN FETCH a.user u " +
+           "WHERE s = :subject AND (u IS NULL OR u = :user) ORDER BY a.dueDate ASC")
     List<Assignment> findBySubjectForStudent(@Param("subject") Subject subject, @Param("user") User user);
     
     // Get all assignments for a user across all enrolled subjects (includes teacher-created assignments)
-    @Query("SELECT a FROM Assignment a JOIN a.subject s JOIN Enrollment e ON e.subject = s WHERE e.student = :user AND (a.user IS NULL OR a.user = :user) ORDER BY a.dueDate ASC")
+    @Query("SELECT a FROM Assignment a JOIN FETCH a.subject s JOIN FETCH s.teacher LEFT JOIN FETCH a.user u " +
+           "JOIN Enrollment e ON e.subject = s WHERE e.student = :user AND (u IS NULL OR u = :user) ORDER BY a.dueDate ASC")
     List<Assignment> findAllForStudent(@Param("user") User user);
     
+    // Calendar entries due in [from, to): the user's own assignments plus every assignment of the subjects
+    // they are enrolled in (students) or teach (teachers), each exactly once, in a single statement
+    @Query("SELECT new com.core.echolearn.dto.CalendarEventDTO(a.activityId, a.title, a.dueDate, a.completed, a.description) " +
+           "FROM Assignment a LEFT JOIN a.subject s " +
+           "WHERE a.dueDate >= :from AND a.dueDate < :to AND (a.user.id = :userId " +
+           "OR (:student = TRUE AND s.subjectId IN (SELECT e.subject.subjectId FROM Enrollment e WHERE e.student.id = :userId)) " +
+           "OR (:teacher = TRUE AND s.teacher.id = :userId)) ORDER BY a.dueDate ASC")
+    List<CalendarEventDTO> findCalendarEntriesInRange(@Param("userId") Long userId,
+                                                      @Param("student") boolean student,
+                                                      @Param("teacher") boolean teacher,
+                                                      @Param("from") LocalDate from,
+                                                      @Param("to") LocalDate to);
+    
     // Get all assignments from subjects a teacher teaches
-    @Query("SELECT a FROM Assignment a WHERE a.subject.teacher.id = :teacherId ORDER BY a.dueDate ASC")
+    @Query("SELECT a FROM Assignment a JOIN FETCH a.subject s JOIN FETCH s.teacher t LEFT JOIN FETCH a.user " +
+           "WHERE t.id = :teacherId ORDER BY a.dueDate ASC")
     List<Assignment> findAllForTeacher(@Param("teacherId") Long teacherId);
 }
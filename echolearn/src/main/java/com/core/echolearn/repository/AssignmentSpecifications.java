@@ -0,0 +1,108 @@
+package com.core.echolearn.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.core.echolearn.entity.Assignment;
+import com.core.echolearn.entity.AssignmentSubmission;
+import com.core.echolearn.entity.Enrollment;
+import com.core.echolearn.entity.User;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+// Criteria building blocks for the assignment list, combined by AssignmentService
+public final class AssignmentSpecifications {
+
+    private AssignmentSpecifications() {
+    }
+
+    // Students: assignments of enrolled subjects that are teacher-created or assigned to them.
+    // Teachers: assignments of subjects they teach.
+    public static Specification<Assignment> visibleTo(User user) {
+        return (root, query, cb) -> {
+            if ("STUDENT".equals(user.getRole())) {
+                Subquery<Long> enrollment = query.subquery(Long.class);
+                Root<Enrollment> e = enrollment.from(Enrollment.class);
+                enrollment.select(e.get("enrollmentId"))
+                    .where(cb.equal(e.get("subject"), root.get("subject")),
+                           cb.equal(e.get("student"), user));
+                return cb.and(
+                    cb.exists(enrollment),
+                    cb.or(cb.isNull(root.get("user")), cb.equal(root.get("user"), user)));
+            }
+            return cb.equal(root.get("subject").get("teacher").get("id"), user.getId());
+        };
+    }
+
+    public static Specification<Assignment> titleContains(String search) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), "%" + search.toLowerCase() + "%");
+    }
+
+    public static Specification<Assignment> inSubject(Long subjectId) {
+        return (root, query, cb) -> cb.equal(root.get("subject").get("subjectId"), subjectId);
+    }
+
+    public static Specification<Assignment> hasSubjectCode(String subjectCode) {
+        return (root, query, cb) -> cb.equal(root.get("subject").get("subjectCode"), subjectCode);
+    }
+
+    public static Specification<Assignment> submittedBy(User student) {
+        return (root, query, cb) -> {
+            Subquery<Long> submission = query.subquery(Long.class);
+            Root<AssignmentSubmission> s = submission.from(AssignmentSubmission.class);
+            submission.select(s.get("submissionId"))
+                .where(cb.equal(s.get("assignment"), root),
+                       cb.equal(s.get("student"), student));
+            return cb.exists(submission);
+        };
+    }
+
+    public static Specification<Assignment> notSubmittedBy(User student) {
+        return Specification.not(submittedBy(student));
+    }
+
+    public static Specification<Assignment> dueBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThan(root.get("dueDate"), date);
+    }
+
+    public static Specification<Assignment> dueOn(LocalDate date) {
+        return (root, query, cb) -> cb.equal(root.get("dueDate"), date);
+    }
+
+    public static Specification<Assignment> dueBetween(LocalDate from, LocalDate to) {
+        return (root, query, cb) -> cb.between(root.get("dueDate"), from, to);
+    }
+
+    public static Specification<Assignment> dueAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThan(root.get("dueDate"), date);
+    }
+
+    // Fetches the eager associations and applies ordering on the row query only (count queries are left alone).
+    // "difficulty" sorts HARD > MEDIUM > EASY by a computed rank; anything else sorts by due date.
+    public static Specification<Assignment> fetchedAndSortedBy(String sortBy) {
+        return (root, query, cb) -> {
+            if (Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType())) {
+                return null;
+            }
+
+            root.fetch("subject", JoinType.INNER).fetch("teacher", JoinType.INNER);
+            root.fetch("user", JoinType.LEFT);
+
+            if ("difficulty".equals(sortBy)) {
+                Expression<Integer> difficultyRank = cb.<Integer>selectCase()
+                    .when(cb.equal(root.get("difficulty"), "HARD"), 3)
+                    .when(cb.equal(root.get("difficulty"), "MEDIUM"), 2)
+                    .when(cb.equal(root.get("difficulty"), "EASY"), 1)
+                    .otherwise(0);
+                query.orderBy(cb.desc(difficultyRank), cb.asc(root.get("dueDate")), cb.asc(root.get("activityId")));
+            } else {
+                query.orderBy(cb.asc(root.get("dueDate")), cb.asc(root.get("activityId")));
+            }
+            return null;
+        };
+    }
+}
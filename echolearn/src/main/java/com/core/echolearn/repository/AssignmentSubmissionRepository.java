@@ -4,10 +4,13 @@ import com.core.echolearn.entity.AssignmentSubmission;
 import com.core.echolearn.entity.Assignment;
 import com.core.echolearn.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface AssignmentSubmissionRepository extends JpaRepository<AssignmentSubmission, Long> {
@@ -24,6 +27,10 @@ public interface AssignmentSubmissionRepository extends JpaRepository<Assignment
     // Check if student has submitted assignment
     boolean existsByAssignmentAndStudent(Assignment assignment, User student);
     
+    // Ids of every assignment a student has submitted, for building dashboards without per-row checks
+    @Query("SELECT s.assignment.activityId FROM AssignmentSubmission s WHERE s.student = :student")
+    Set<Long> findSubmittedAssignmentIdsByStudent(@Param("student") User student);
+    
     // Delete all submissions for an assignment
     void deleteByAssignment(Assignment assignment);
 }
@@ -1,14 +1,31 @@
 package com.core.echolearn.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.core.echolearn.dto.CalendarEventDTO;
 import com.core.echolearn.entity.Calendar;
 import com.core.echolearn.entity.User;
 
 @Repository
 public interface CalendarRepository extends JpaRepository<Calendar, Long> {
     List<Calendar> findByUser(User user);
-}
\ No newline at end of file
+
+    // Events overlapping [from, to); a missing end time counts as the start. earliest is from minus the longest
+    // allowed event (CalendarService.MAX_EVENT_DAYS), so the (user_id, date) index is range-scanned between
+    // earliest and to. Projected straight into the DTO, so no user/subject rows are loaded. end is null when
+    // the event has no end time (caller fills it in).
+    @Query("SELECT new com.core.echolearn.dto.CalendarEventDTO(c.eventID, c.title, c.date, c.endTime, 'EVENT', FALSE, " +
+           "c.location, c.description) FROM Calendar c " +
+           "WHERE c.user.id = :userId AND c.date >= :earliest AND c.date < :to " +
+           "AND COALESCE(c.endTime, c.date) >= :from ORDER BY c.date ASC")
+    List<CalendarEventDTO> findEventsInRange(@Param("userId") Long userId,
+                                             @Param("earliest") LocalDateTime earliest,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+}
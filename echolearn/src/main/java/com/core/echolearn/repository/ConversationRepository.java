@@ -1,5 +1,6 @@
 package com.core.echolearn.repository;
 
+import com.core.echolearn.dto.ConversationInboxDTO;
 import com.core.echolearn.entity.Conversation;
 import com.core.echolearn.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,4 +19,18 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     
     @Query("SELECT c FROM Conversation c WHERE c.user1 = :user OR c.user2 = :user ORDER BY c.lastMessageAt DESC")
     List<Conversation> findByUser(@Param("user") User user);
+    
+    // Whole inbox in one query: other participant, denormalized last message and unread count
+    // (main-thread messages only; side chats are opened and read separately)
+    @Query("SELECT new com.core.echolearn.dto.ConversationInboxDTO(" +
+           "c.conversationId, " +
+           "CASE WHEN u1.id = :userId THEN u2.id ELSE u1.id END, " +
+           "CASE WHEN u1.id = :userId THEN u2.username ELSE u1.username END, " +
+           "c.lastMessagePreview, c.lastMessageSenderId, c.lastMessageAt, c.createdAt, " +
+           "(SELECT COUNT(m) FROM Message m WHERE m.conversation = c AND m.sideChat IS NULL AND m.isDeleted = false " +
+           "AND m.sender.id <> :userId " +
+           "AND m.timestamp > COALESCE(CASE WHEN u1.id = :userId THEN c.user1LastReadAt ELSE c.user2LastReadAt END, c.createdAt))) " +
+           "FROM Conversation c JOIN c.user1 u1 JOIN c.user2 u2 " +
+           "WHERE u1.id = :userId OR u2.id = :userId ORDER BY c.lastMessageAt DESC")
+    List<ConversationInboxDTO> findInboxByUserId(@Param("userId") Long userId);
 }
@@ -2,6 +2,8 @@ package com.core.echolearn.repository;
 
 import com.core.echolearn.entity.Enrollment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +14,10 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     List<Enrollment> findByStudentId(Long studentId);
     
+    // Only the student ids of one subject, for notification fan-out
+    @Query("SELECT e.student.id FROM Enrollment e WHERE e.subject.subjectId = :subjectId")
+    List<Long> findStudentIdsBySubjectId(@Param("subjectId") Long subjectId);
+    
     Optional<Enrollment> findByStudentIdAndSubjectSubjectId(Long studentId, Long subjectId);
     
     boolean existsByStudentIdAndSubjectSubjectId(Long studentId, Long subjectId);
@@ -0,0 +1,35 @@
+package com.core.echolearn.repository;
+
+import com.core.echolearn.entity.FileBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+    
+    // Atomic in the database, so concurrent uploads of the same content cannot lose a reference
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + 1 WHERE b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+    
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash AND b.refCount > 0")
+    int decrementRefCount(@Param("hash") String hash);
+    
+    @Modifying
+    @Query("DELETE FROM FileBlob b WHERE b.hash = :hash AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+    
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.codec = :codec WHERE b.hash = :hash")
+    int updateCodec(@Param("hash") String hash, @Param("codec") String codec);
+    
+    // Blob behind a stored name, in one round trip
+    @Query("SELECT b FROM FileBlob b, StoredFile s WHERE s.storedName = :storedName AND b.hash = s.blobHash")
+    Optional<FileBlob> findByStoredName(@Param("storedName") String storedName);
+}
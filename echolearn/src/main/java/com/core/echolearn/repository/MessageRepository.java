@@ -3,6 +3,8 @@ package com.core.echolearn.repository;
 import com.core.echolearn.entity.Conversation;
 import com.core.echolearn.entity.Message;
 import com.core.echolearn.entity.SideChat;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -16,4 +18,18 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findBySideChatAndIsDeletedFalseOrderByTimestampAsc(SideChat sideChat);
     
     Long countBySideChatAndIsDeletedFalse(SideChat sideChat);
+    
+    // Keyset pages for the main thread of a conversation (message id is the cursor)
+    Slice<Message> findByConversationAndSideChatIsNullAndIsDeletedFalseOrderByMessageIdDesc(Conversation conversation, Pageable pageable);
+    
+    Slice<Message> findByConversationAndSideChatIsNullAndIsDeletedFalseAndMessageIdLessThanOrderByMessageIdDesc(Conversation conversation, Long before, Pageable pageable);
+    
+    Slice<Message> findByConversationAndSideChatIsNullAndIsDeletedFalseAndMessageIdGreaterThanOrderByMessageIdAsc(Conversation conversation, Long after, Pageable pageable);
+    
+    // Keyset pages for a side chat
+    Slice<Message> findBySideChatAndIsDeletedFalseOrderByMessageIdDesc(SideChat sideChat, Pageable pageable);
+    
+    Slice<Message> findBySideChatAndIsDeletedFalseAndMessageIdLessThanOrderByMessageIdDesc(SideChat sideChat, Long before, Pageable pageable);
+    
+    Slice<Message> findBySideChatAndIsDeletedFalseAndMessageIdGreaterThanOrderByMessageIdAsc(SideChat sideChat, Long after, Pageable pageable);
 }
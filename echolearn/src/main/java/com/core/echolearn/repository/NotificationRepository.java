@@ -1,10 +1,17 @@
 package com.core.echolearn.repository;
 
+import com.core.echolearn.dto.NotificationDTO;
 import com.core.echolearn.entity.Notification;
 import com.core.echolearn.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -19,4 +26,30 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserOrderByCreatedAtDesc(User user);
     
     long countByUserAndIsRead(User user, Boolean isRead);
+    
+    long countByUserIdAndIsRead(Long userId, Boolean isRead);
+    
+    long countByUserId(Long userId);
+    
+    // Newest-first feed, keyset-paged on (createdAt, notifId) over idx_notifications_user_created
+    @Query("SELECT new com.core.echolearn.dto.NotificationDTO(n.notifId, n.title, n.message, n.type, n.status, " +
+           "n.isRead, n.createdAt, n.referenceId) FROM Notification n " +
+           "WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.notifId DESC")
+    Slice<NotificationDTO> findFeedByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT new com.core.echolearn.dto.NotificationDTO(n.notifId, n.title, n.message, n.type, n.status, " +
+           "n.isRead, n.createdAt, n.referenceId) FROM Notification n " +
+           "WHERE n.user.id = :userId AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.notifId < :notifId)) " +
+           "ORDER BY n.createdAt DESC, n.notifId DESC")
+    Slice<NotificationDTO> findFeedByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("notifId") Long notifId, Pageable pageable);
+    
+    // Bulk paths: one statement regardless of how many rows match, no entities hydrated
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") Long userId);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.isRead = true AND n.createdAt < :cutoff")
+    int deleteReadByUserIdOlderThan(@Param("userId") Long userId, @Param("cutoff") LocalDateTime cutoff);
 }
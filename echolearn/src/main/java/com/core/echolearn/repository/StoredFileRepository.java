@@ -0,0 +1,9 @@
+package com.core.echolearn.repository;
+
+import com.core.echolearn.entity.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+}
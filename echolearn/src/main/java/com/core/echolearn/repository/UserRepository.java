@@ -1,9 +1,15 @@
 package com.core.echolearn.repository;
 
+import com.core.echolearn.dto.UserSummaryDTO;
 import com.core.echolearn.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +24,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     boolean existsByUsername(String username);
+    
+    // Prefix match served by the unique indexes on users.username / users.email
+    @Query("SELECT new com.core.echolearn.dto.UserSummaryDTO(u.id, u.username, u.email, u.role) FROM User u " +
+           "WHERE u.id <> :excludedId AND (u.username LIKE CONCAT(:prefix, '%') OR u.email LIKE CONCAT(:prefix, '%')) " +
+           "ORDER BY u.username")
+    Slice<UserSummaryDTO> searchSummariesByPrefix(@Param("prefix") String prefix, @Param("excludedId") Long excludedId, Pageable pageable);
+    
+    @Query("SELECT new com.core.echolearn.dto.UserSummaryDTO(u.id, u.username, u.email, u.role) FROM User u " +
+           "WHERE u.id <> :excludedId ORDER BY u.username")
+    Slice<UserSummaryDTO> findSummariesExcluding(@Param("excludedId") Long excludedId, Pageable pageable);
+    
+    @Query("SELECT new com.core.echolearn.dto.UserSummaryDTO(u.id, u.username, u.email, u.role) FROM User u")
+    List<UserSummaryDTO> findAllSummaries();
 }
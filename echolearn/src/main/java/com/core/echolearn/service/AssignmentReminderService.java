@@ -0,0 +1,191 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.entity.Notification;
+import com.core.echolearn.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Due-date reminders and the overdue sweep for subject assignments, so students hear about deadlines
+// without polling their assignment list. One set-based query finds enrolled students without a submission
+// (anti-join on assignment_submissions) whose assignment falls in a reminder window and who have not had
+// that window's reminder yet (anti-join on assignment_reminders). Each chunk records the reminders and
+// writes the notifications in one transaction, so reruns and overlapping runs never send twice.
+@Service
+public class AssignmentReminderService {
+
+    public static final String DEADLINE = "DEADLINE";
+    public static final String OVERDUE = "OVERDUE";
+
+    private static final String DUE_PREFIX = "DUE_";
+
+    // %s: CASE expression naming the window of a.due_date
+    private static final String PENDING =
+        "SELECT p.assignment_id, p.student_id, p.kind, p.title, p.due_date FROM (" +
+        "SELECT a.activity_id AS assignment_id, e.student_id AS student_id, %s AS kind, " +
+        "a.title AS title, a.due_date AS due_date " +
+        "FROM assignments a JOIN enrollments e ON e.subject_id = a.subject_id JOIN users u ON u.id = e.student_id " +
+        "WHERE u.role = 'STUDENT' AND a.due_date >= :overdueFrom AND a.due_date <= :horizon " +
+        "AND NOT EXISTS (SELECT 1 FROM assignment_submissions s " +
+        "WHERE s.assignment_id = a.activity_id AND s.student_id = e.student_id)" +
+        ") p WHERE NOT EXISTS (SELECT 1 FROM assignment_reminders r " +
+        "WHERE r.assignment_id = p.assignment_id AND r.student_id = p.student_id AND r.kind = p.kind) " +
+        "ORDER BY p.assignment_id, p.student_id LIMIT :limit";
+
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${assignment.reminder.enabled:true}")
+    private boolean enabled;
+
+    // Days ahead of the due date; a pair gets the reminder of the smallest window it falls in
+    @Value("${assignment.reminder.windows-days:1,3}")
+    private int[] windowDays;
+
+    @Value("${assignment.reminder.overdue-days:7}")
+    private int overdueDays;
+
+    @Value("${assignment.reminder.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${assignment.reminder.cron:0 0 * * * *}")
+    public void sendDueReminders() {
+        if (enabled) {
+            sendReminders(LocalDate.now());
+        }
+    }
+
+    // Returns the number of reminders sent
+    public int sendReminders(LocalDate today) {
+        int[] windows = windowDays.clone();
+        Arrays.sort(windows);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("today", Date.valueOf(today))
+            .addValue("overdueFrom", Date.valueOf(today.minusDays(overdueDays)))
+            .addValue("horizon", Date.valueOf(windows.length > 0 ? today.plusDays(windows[windows.length - 1])
+                : today.minusDays(1)))
+            .addValue("limit", batchSize);
+        StringBuilder kind = new StringBuilder("CASE WHEN a.due_date < :today THEN '" + OVERDUE + "'");
+        for (int i = 0; i < windows.length; i++) {
+            params.addValue("window" + i, Date.valueOf(today.plusDays(windows[i])));
+            kind.append(" WHEN a.due_date <= :window").append(i)
+                .append(" THEN '").append(DUE_PREFIX).append(windows[i]).append("'");
+        }
+        kind.append(" END");
+        String sql = String.format(PENDING, kind);
+
+        purgeExpired(today, windows);
+        int total = 0;
+        while (true) {
+            Integer sent = transactionTemplate.execute(status -> sendChunk(sql, params, today));
+            if (sent == null) {
+                return total;
+            }
+            total += sent;
+            if (sent < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int sendChunk(String sql, MapSqlParameterSource params, LocalDate today) {
+        List<PendingReminder> pending = namedJdbcTemplate.query(sql, params,
+            (rs, rowNum) -> new PendingReminder(rs.getLong("assignment_id"), rs.getLong("student_id"),
+                rs.getString("kind"), rs.getString("title"), rs.getDate("due_date").toLocalDate()));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // A concurrent run that got here first fails this chunk on the primary key instead of sending again
+        Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO assignment_reminders (assignment_id, student_id, kind, sent_at) VALUES (?, ?, ?, ?)",
+            pending, NotificationFanoutService.BATCH_SIZE, (statement, reminder) -> {
+                statement.setLong(1, reminder.assignmentId);
+                statement.setLong(2, reminder.studentId);
+                statement.setString(3, reminder.kind);
+                statement.setTimestamp(4, sentAt);
+            });
+
+        List<Notification> notifications = new ArrayList<>(pending.size());
+        for (PendingReminder reminder : pending) {
+            Notification notification = OVERDUE.equals(reminder.kind)
+                ? new Notification("Assignment Overdue",
+                    "'" + reminder.title + "' was due " + DUE_FORMAT.format(reminder.dueDate)
+                        + " and has not been submitted", DEADLINE, reminder.assignmentId)
+                : new Notification("Assignment Due Soon",
+                    "'" + reminder.title + "' is due " + dueIn(today, reminder.dueDate), DEADLINE, reminder.assignmentId);
+            // Reference proxy: only the foreign key is needed, the user row is never loaded
+            notification.setUser(entityManager.getReference(User.class, reminder.studentId));
+            notifications.add(notification);
+        }
+        notificationFanoutService.createAll(notifications);
+        return pending.size();
+    }
+
+    // Markers older than the widest window plus the overdue period can no longer match the pending query
+    private void purgeExpired(LocalDate today, int[] windows) {
+        int widest = windows.length > 0 ? windows[windows.length - 1] : 0;
+        jdbcTemplate.update("DELETE FROM assignment_reminders WHERE sent_at < ?",
+            Timestamp.valueOf(today.minusDays(widest + overdueDays + 1L).atStartOfDay()));
+    }
+
+    private static String dueIn(LocalDate today, LocalDate dueDate) {
+        long days = ChronoUnit.DAYS.between(today, dueDate);
+        if (days == 0) {
+            return "today";
+        }
+        if (days == 1) {
+            return "tomorrow";
+        }
+        return "in " + days + " days (" + DUE_FORMAT.format(dueDate) + ")";
+    }
+
+    private static class PendingReminder {
+        private final long assignmentId;
+        private final long studentId;
+        private final String kind;
+        private final String title;
+        private final LocalDate dueDate;
+
+        private PendingReminder(long assignmentId, long studentId, String kind, String title, LocalDate dueDate) {
+            this.assignmentId = assignmentId;
+            this.studentId = studentId;
+            this.kind = kind;
+            this.title = title;
+            this.dueDate = dueDate;
+        }
+    }
+}
@@ -6,27 +6,44 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.core.echolearn.dto.CalendarChangeEvent;
 import com.core.echolearn.dto.CalendarEventDTO;
+import com.core.echolearn.dto.FilesReleasedEvent;
 import com.core.echolearn.entity.Assignment;
+import com.core.echolearn.entity.AssignmentSubmission;
 import com.core.echolearn.entity.Subject;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.repository.AssignmentRepository;
+import com.core.echolearn.repository.AssignmentSpecifications;
 import com.core.echolearn.repository.AssignmentSubmissionRepository;
 
 @Service
 public class AssignmentService {
     
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    
     @Autowired
     private AssignmentRepository assignmentRepository;
     
     @Autowired
     private AssignmentSubmissionRepository submissionRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Assignment createAssignment(Assignment assignment) {
-        return assignmentRepository.save(assignment);
+        Assignment saved = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(CalendarChangeEvent.assignmentSaved(saved.getActivityId()));
+        return saved;
     }
     
     public Optional<Assignment> findById(Long id) {
@@ -47,6 +64,58 @@ public class AssignmentService {
         }
     }
     
+    // Filtered, sorted and paginated assignment list built as a single SQL query.
+    // Without page and size the whole list is returned, as callers that predate paging expect.
+    public Page<Assignment> searchAssignmentsForUser(User user, String search, Long subjectId, String subjectCode,
+                                                     String status, String sortBy, Integer page, Integer size) {
+        Specification<Assignment> spec = AssignmentSpecifications.visibleTo(user)
+            .and(AssignmentSpecifications.fetchedAndSortedBy(sortBy));
+        
+        if (search != null && !search.isEmpty()) {
+            spec = spec.and(AssignmentSpecifications.titleContains(search));
+        }
+        if (subjectId != null) {
+            spec = spec.and(AssignmentSpecifications.inSubject(subjectId));
+        }
+        if (subjectCode != null && !subjectCode.isEmpty()) {
+            spec = spec.and(AssignmentSpecifications.hasSubjectCode(subjectCode));
+        }
+        if (status != null && "STUDENT".equals(user.getRole())) {
+            spec = spec.and(statusFilter(status, user));
+        }
+        
+        if (page == null && size == null) {
+            return assignmentRepository.findAll(spec, Pageable.unpaged());
+        }
+        int pageNumber = page != null && page >= 0 ? page : 0;
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        // Ordering comes from the specification, so the page request stays unsorted
+        return assignmentRepository.findAll(spec, PageRequest.of(pageNumber, pageSize));
+    }
+    
+    private Specification<Assignment> statusFilter(String status, User student) {
+        LocalDate today = LocalDate.now();
+        LocalDate weekFromNow = today.plusDays(7);
+        Specification<Assignment> pending = AssignmentSpecifications.notSubmittedBy(student);
+        
+        switch (status) {
+            case "completed":
+                return AssignmentSpecifications.submittedBy(student);
+            case "overdue":
+                return pending.and(AssignmentSpecifications.dueBefore(today));
+            case "today":
+                return pending.and(AssignmentSpecifications.dueOn(today));
+            case "week":
+                return pending.and(AssignmentSpecifications.dueBetween(today, weekFromNow));
+            case "upcoming":
+                return pending.and(AssignmentSpecifications.dueAfter(weekFromNow));
+            case "all":
+                return pending;
+            default:
+                return (root, query, cb) -> null;
+        }
+    }
+    
     public List<Assignment> getAssignmentsBySubject(Subject subject) {
         return assignmentRepository.findBySubjectOrderByDueDateAsc(subject);
     }
@@ -77,13 +146,22 @@ public class AssignmentService {
         if (assignmentOpt.isPresent()) {
             Assignment assignment = assignmentOpt.get();
             assignment.setCompleted(true);
-            return assignmentRepository.save(assignment);
+            Assignment saved = assignmentRepository.save(assignment);
+            eventPublisher.publishEvent(CalendarChangeEvent.assignmentSaved(saved.getActivityId()));
+            return saved;
         }
         return null;
     }
     
+    @Transactional
     public Assignment updateAssignment(Assignment assignment) {
-        return assignmentRepository.save(assignment);
+        String previousFileNames = assignment.getActivityId() == null ? null
+            : assignmentRepository.findById(assignment.getActivityId()).map(Assignment::getFileNames).orElse(null);
+        Assignment saved = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(CalendarChangeEvent.assignmentSaved(saved.getActivityId()));
+        // Attachments removed in the edit
+        eventPublisher.publishEvent(FilesReleasedEvent.removed(previousFileNames, saved.getFileNames()));
+        return saved;
     }
     
     @Transactional
@@ -91,10 +169,16 @@ public class AssignmentService {
         // First, delete all submissions for this assignment
         Optional<Assignment> assignmentOpt = assignmentRepository.findById(id);
         if (assignmentOpt.isPresent()) {
+            List<String> fileNames = submissionRepository.findByAssignment(assignmentOpt.get()).stream()
+                .map(AssignmentSubmission::getFileNames)
+                .collect(Collectors.toList());
+            fileNames.add(assignmentOpt.get().getFileNames());
             submissionRepository.deleteByAssignment(assignmentOpt.get());
+            eventPublisher.publishEvent(FilesReleasedEvent.of(fileNames.toArray(new String[0])));
         }
         // Then delete the assignment
         assignmentRepository.deleteById(id);
+        eventPublisher.publishEvent(CalendarChangeEvent.assignmentDeleted(id));
     }
 
     public List<CalendarEventDTO> getCalendarEventsForUser(User user) {
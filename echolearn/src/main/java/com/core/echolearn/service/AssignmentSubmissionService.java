@@ -1,16 +1,19 @@
 package com.core.echolearn.service;
 
+import com.core.echolearn.dto.FilesReleasedEvent;
 import com.core.echolearn.entity.Assignment;
 import com.core.echolearn.entity.AssignmentSubmission;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.repository.AssignmentSubmissionRepository;
 import com.core.echolearn.repository.AssignmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class AssignmentSubmissionService {
@@ -21,6 +24,9 @@ public class AssignmentSubmissionService {
     @Autowired
     private AssignmentRepository assignmentRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Submit an assignment
     @Transactional
     public AssignmentSubmission submitAssignment(Assignment assignment, User student, 
@@ -42,6 +48,7 @@ public class AssignmentSubmissionService {
         Optional<AssignmentSubmission> submission = submissionRepository.findByAssignmentAndStudent(assignment, student);
         if (submission.isPresent()) {
             submissionRepository.delete(submission.get());
+            eventPublisher.publishEvent(FilesReleasedEvent.of(submission.get().getFileNames()));
         } else {
             throw new IllegalStateException("No submission found to unsubmit");
         }
@@ -67,15 +74,23 @@ public class AssignmentSubmissionService {
         return submissionRepository.existsByAssignmentAndStudent(assignment, student);
     }
     
+    // Ids of all assignments the student has submitted (one query)
+    public Set<Long> getSubmittedAssignmentIds(User student) {
+        return submissionRepository.findSubmittedAssignmentIdsByStudent(student);
+    }
+    
     // Update submission (for editing before final submission)
     @Transactional
     public AssignmentSubmission updateSubmission(Long submissionId, String submissionText, String fileNames) {
         Optional<AssignmentSubmission> submissionOpt = submissionRepository.findById(submissionId);
         if (submissionOpt.isPresent()) {
             AssignmentSubmission submission = submissionOpt.get();
+            FilesReleasedEvent removed = FilesReleasedEvent.removed(submission.getFileNames(), fileNames);
             submission.setSubmissionText(submissionText);
             submission.setFileNames(fileNames);
-            return submissionRepository.save(submission);
+            AssignmentSubmission saved = submissionRepository.save(submission);
+            eventPublisher.publishEvent(removed);
+            return saved;
         }
         throw new IllegalArgumentException("Submission not found");
     }
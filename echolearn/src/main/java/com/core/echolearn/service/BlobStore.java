@@ -0,0 +1,30 @@
+package com.core.echolearn.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+// Where FileStorageService keeps file bytes. Keys are relative, '/'-separated paths
+// ("uuid.ext" or "blobs/ab/cd/<sha256>"). Selected with file.storage.backend=filesystem|s3.
+public interface BlobStore {
+
+    // Stores the local file under key; the caller deletes the source afterwards if it still exists
+    void put(String key, Path source, String contentType) throws IOException;
+
+    // Streams the content; throws java.nio.file.NoSuchFileException for unknown keys
+    InputStream get(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    // Backends on local disk expose the file so downloads can use sendfile / transferTo
+    Optional<Path> localPath(String key);
+
+    // Backends that can serve clients directly return a time-limited URL, so bytes bypass the app server.
+    // contentEncoding (nullable) is sent as the response's Content-Encoding for content stored encoded.
+    Optional<URI> presignedGetUrl(String key, String downloadName, String contentEncoding, Duration ttl);
+}
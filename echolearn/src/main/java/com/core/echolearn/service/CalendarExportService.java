@@ -0,0 +1,123 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.dto.CalendarEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+// iCalendar (RFC 5545) export of a user's calendar for subscription from external calendar apps.
+// VEVENTs are written straight from the calendar_feed cursor, so memory use does not grow with the calendar.
+@Service
+public class CalendarExportService {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    // RFC 5545 3.1: content lines longer than 75 octets are folded
+    private static final int MAX_LINE_OCTETS = 75;
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    // Subscribers get recent history plus everything upcoming
+    @Value("${calendar.ics.past-days:180}")
+    private int pastDays;
+
+    public String etag(Long userId) {
+        return "\"" + calendarFeedService.versionTag(userId) + "\"";
+    }
+
+    public void writeCalendar(Long userId, Writer out) throws IOException {
+        String stamp = UTC_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+        writeLine(out, "BEGIN:VCALENDAR");
+        writeLine(out, "VERSION:2.0");
+        writeLine(out, "PRODID:-//EchoLearn//Calendar//EN");
+        writeLine(out, "CALSCALE:GREGORIAN");
+        writeLine(out, "METHOD:PUBLISH");
+        writeLine(out, "X-WR-CALNAME:EchoLearn");
+        try {
+            calendarFeedService.streamForUser(userId, LocalDate.now().minusDays(pastDays), event -> {
+                try {
+                    writeEvent(out, event, stamp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeLine(out, "END:VCALENDAR");
+    }
+
+    private void writeEvent(Writer out, CalendarEventDTO event, String stamp) throws IOException {
+        writeLine(out, "BEGIN:VEVENT");
+        writeLine(out, "UID:" + event.getResourceType().toLowerCase(Locale.ROOT) + "-" + event.getId() + "@echolearn");
+        writeLine(out, "DTSTAMP:" + stamp);
+        if (CalendarFeedService.ASSIGNMENT.equals(event.getResourceType())) {
+            // Due dates are whole days
+            LocalDate due = event.getStart().toLocalDate();
+            writeLine(out, "DTSTART;VALUE=DATE:" + DATE.format(due));
+            writeLine(out, "DTEND;VALUE=DATE:" + DATE.format(due.plusDays(1)));
+        } else {
+            // Stored times carry no zone; floating times show at the same wall-clock time everywhere
+            writeLine(out, "DTSTART:" + LOCAL_DATE_TIME.format(event.getStart()));
+            writeLine(out, "DTEND:" + LOCAL_DATE_TIME.format(event.getEnd()));
+        }
+        writeLine(out, "SUMMARY:" + escape(event.getTitle()));
+        if (event.getLocation() != null && !event.getLocation().isEmpty()) {
+            writeLine(out, "LOCATION:" + escape(event.getLocation()));
+        }
+        if (event.getDescription() != null && !event.getDescription().isEmpty()) {
+            writeLine(out, "DESCRIPTION:" + escape(event.getDescription()));
+        }
+        if (Boolean.TRUE.equals(event.getCompleted())) {
+            writeLine(out, "X-ECHOLEARN-COMPLETED:TRUE");
+        }
+        writeLine(out, "END:VEVENT");
+    }
+
+    // TEXT values: backslash, semicolon, comma and newlines are escaped
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+            .replace(";", "\\;")
+            .replace(",", "\\,")
+            .replace("\r\n", "\\n")
+            .replace("\n", "\\n")
+            .replace("\r", "\\n");
+    }
+
+    // Writes a CRLF-terminated content line, folding at 75 octets without splitting a UTF-8 sequence
+    private static void writeLine(Writer out, String line) throws IOException {
+        int octets = 0;
+        int start = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            // Continuation lines start with a space, which counts against their 75 octets
+            int limit = start == 0 ? MAX_LINE_OCTETS : MAX_LINE_OCTETS - 1;
+            if (octets + width > limit) {
+                out.write(line, start, i - start);
+                out.write("\r\n ");
+                start = i;
+                octets = 0;
+            }
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.write(line, start, line.length() - start);
+        out.write("\r\n");
+    }
+}
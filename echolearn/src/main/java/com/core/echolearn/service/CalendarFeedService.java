@@ -0,0 +1,197 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.dto.CalendarChangeEvent;
+import com.core.echolearn.dto.CalendarEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+// calendar_feed read model: every event and assignment a user sees, one row each, so rendering a calendar
+// is a single range scan on (user_id, feed_day). Kept current by CalendarChangeEvents from the services
+// that write the source tables; each change only touches the rows of the affected event, assignment or
+// enrollment. Audience rules match CalendarService.getCalendarForUser.
+@Service
+public class CalendarFeedService {
+
+    public static final String EVENT = "EVENT";
+    public static final String ASSIGNMENT = "ASSIGNMENT";
+
+    private static final String COLUMNS =
+        "user_id, source_type, source_id, feed_day, end_day, title, start_time, end_time, completed, location, description, " +
+        "updated_at";
+
+    // %s: extra condition on calendar_events c
+    private static final String INSERT_EVENTS =
+        "INSERT INTO calendar_feed (" + COLUMNS + ") " +
+        "SELECT c.user_id, 'EVENT', c.eventid, CAST(c.date AS DATE), CAST(COALESCE(c.end_time, c.date) AS DATE), " +
+        "c.title, c.date, c.end_time, FALSE, c.location, c.description, CURRENT_TIMESTAMP(6) " +
+        "FROM calendar_events c WHERE c.date IS NOT NULL AND %s";
+
+    // %1$s: extra condition on assignments a (applied in every audience branch), %2$s: condition on the audience p
+    private static final String INSERT_ASSIGNMENTS =
+        "INSERT INTO calendar_feed (" + COLUMNS + ") " +
+        "SELECT p.user_id, 'ASSIGNMENT', a.activity_id, a.due_date, a.due_date, " +
+        "a.title, NULL, NULL, a.completed, NULL, a.description, CURRENT_TIMESTAMP(6) " +
+        "FROM assignments a JOIN (" +
+        "SELECT a.activity_id AS assignment_id, a.user_id AS user_id FROM assignments a " +
+        "WHERE a.user_id IS NOT NULL AND %1$s " +
+        "UNION SELECT a.activity_id, e.student_id FROM assignments a " +
+        "JOIN enrollments e ON e.subject_id = a.subject_id JOIN users u ON u.id = e.student_id " +
+        "WHERE u.role = 'STUDENT' AND %1$s " +
+        "UNION SELECT a.activity_id, s.teacher_id FROM assignments a " +
+        "JOIN subjects s ON s.subject_id = a.subject_id JOIN users u ON u.id = s.teacher_id " +
+        "WHERE u.role = 'TEACHER' AND %1$s" +
+        ") p ON p.assignment_id = a.activity_id " +
+        "WHERE a.due_date IS NOT NULL AND %2$s";
+
+    // Rows per server round trip when streaming; Connector/J honours it only with useCursorFetch=true in the URL
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Bump whenever the insert statements or audience rules change, so the next startup rebuilds existing feeds
+    private static final int FEED_VERSION = 1;
+
+    private static final RowMapper<CalendarEventDTO> ROW_MAPPER = (rs, rowNum) -> {
+        long id = rs.getLong("source_id");
+        if (ASSIGNMENT.equals(rs.getString("source_type"))) {
+            return new CalendarEventDTO(id, rs.getString("title"), rs.getDate("feed_day").toLocalDate(),
+                rs.getBoolean("completed"), rs.getString("description"));
+        }
+        LocalDateTime start = rs.getTimestamp("start_time").toLocalDateTime();
+        Timestamp end = rs.getTimestamp("end_time");
+        return new CalendarEventDTO(id, rs.getString("title"), start,
+            end != null ? end.toLocalDateTime() : start.plusHours(1),
+            EVENT, false, rs.getString("location"), rs.getString("description"));
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // Forces a full rebuild on every startup; otherwise one runs only when the stored feed version is outdated
+    @Value("${calendar.feed.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    // Entries overlapping [from, to). Entries span at most CalendarService.MAX_EVENT_DAYS, so the
+    // (user_id, feed_day) index is range-scanned from that far before from up to to; end_day filters the rest.
+    public List<CalendarEventDTO> findForUser(Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            "SELECT source_type, source_id, feed_day, title, start_time, end_time, completed, location, description " +
+            "FROM calendar_feed WHERE user_id = ? AND feed_day >= ? AND feed_day < ? AND end_day >= ? " +
+            "ORDER BY feed_day, start_time",
+            ROW_MAPPER, userId, Date.valueOf(CalendarService.earliestStart(from)), Date.valueOf(to), Date.valueOf(from));
+    }
+
+    // Streams entries overlapping from onwards (open-ended) to the handler row by row, without collecting them;
+    // bounded below like findForUser
+    public void streamForUser(Long userId, LocalDate from, Consumer<CalendarEventDTO> handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT source_type, source_id, feed_day, title, start_time, end_time, completed, location, description " +
+                "FROM calendar_feed WHERE user_id = ? AND feed_day >= ? AND end_day >= ? ORDER BY feed_day, start_time",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setLong(1, userId);
+            statement.setDate(2, Date.valueOf(CalendarService.earliestStart(from)));
+            statement.setDate(3, Date.valueOf(from));
+            return statement;
+        }, (RowCallbackHandler) rs -> handler.accept(ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    // Changes whenever a row of the user's feed is added, rewritten or removed
+    public String versionTag(Long userId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*), MAX(updated_at) FROM calendar_feed WHERE user_id = ?",
+            (rs, rowNum) -> {
+                Timestamp latest = rs.getTimestamp(2);
+                return Long.toHexString(rs.getLong(1)) + "-"
+                    + Long.toHexString(latest != null ? latest.getTime() * 1000 + latest.getNanos() / 1000 % 1000 : 0);
+            },
+            userId);
+    }
+
+    // Runs once the source change has committed, in its own transaction so the delete + re-insert is atomic
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCalendarChange(CalendarChangeEvent event) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("sourceId", event.getSourceId())
+            .addValue("userId", event.getUserId());
+        switch (event.getKind()) {
+            case CalendarChangeEvent.EVENT_SAVED:
+                deleteSource(EVENT, params);
+                namedJdbcTemplate.update(String.format(INSERT_EVENTS, "c.eventid = :sourceId"), params);
+                break;
+            case CalendarChangeEvent.EVENT_DELETED:
+                deleteSource(EVENT, params);
+                break;
+            case CalendarChangeEvent.ASSIGNMENT_SAVED:
+                deleteSource(ASSIGNMENT, params);
+                namedJdbcTemplate.update(
+                    String.format(INSERT_ASSIGNMENTS, "a.activity_id = :sourceId", "1 = 1"), params);
+                break;
+            case CalendarChangeEvent.ASSIGNMENT_DELETED:
+                deleteSource(ASSIGNMENT, params);
+                break;
+            case CalendarChangeEvent.ENROLLMENT_CHANGED:
+                // Recompute the student's rows for the subject's assignments; rows they still see as owner stay
+                namedJdbcTemplate.update(
+                    "DELETE FROM calendar_feed WHERE user_id = :userId AND source_type = 'ASSIGNMENT' " +
+                    "AND source_id IN (SELECT activity_id FROM assignments WHERE subject_id = :sourceId)", params);
+                namedJdbcTemplate.update(
+                    String.format(INSERT_ASSIGNMENTS, "a.subject_id = :sourceId", "p.user_id = :userId"), params);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown calendar change " + event.getKind());
+        }
+    }
+
+    // Recreates the whole feed from the source tables; picks up rows written outside the services
+    // (seed data, manual fixes) and deployments that predate the feed
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM calendar_feed");
+        jdbcTemplate.update(String.format(INSERT_EVENTS, "1 = 1"));
+        jdbcTemplate.update(String.format(INSERT_ASSIGNMENTS, "1 = 1", "1 = 1"));
+        jdbcTemplate.update("DELETE FROM calendar_feed_state");
+        jdbcTemplate.update("INSERT INTO calendar_feed_state (id, version, rebuilt_at) VALUES (1, ?, CURRENT_TIMESTAMP(6))",
+            FEED_VERSION);
+    }
+
+    // The feed is kept current incrementally, so a restart alone needs no rebuild; the full scan of every
+    // source table only runs for a new or outdated feed, or when forced by calendar.feed.rebuild-on-startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildOnStartup() {
+        List<Integer> stored = jdbcTemplate.queryForList("SELECT version FROM calendar_feed_state", Integer.class);
+        if (rebuildOnStartup || stored.isEmpty() || stored.get(0) != FEED_VERSION) {
+            // Self-invocation skips the proxy; this method's own transaction covers the rebuild
+            rebuild();
+        }
+    }
+
+    private void deleteSource(String sourceType, MapSqlParameterSource params) {
+        namedJdbcTemplate.update(
+            "DELETE FROM calendar_feed WHERE source_type = '" + sourceType + "' AND source_id = :sourceId", params);
+    }
+}
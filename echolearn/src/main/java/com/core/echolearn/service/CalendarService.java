@@ -1,28 +1,34 @@
 package com.core.echolearn.service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.core.echolearn.dto.CalendarChangeEvent;
 import com.core.echolearn.dto.CalendarEventDTO;
 import com.core.echolearn.dto.CreateEventRequest;
-import com.core.echolearn.entity.Assignment;
 import com.core.echolearn.entity.Calendar;
-import com.core.echolearn.entity.Enrollment;
-import com.core.echolearn.entity.Subject;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.repository.AssignmentRepository;
 import com.core.echolearn.repository.CalendarRepository;
-import com.core.echolearn.repository.EnrollmentRepository;
-import com.core.echolearn.repository.SubjectRepository;
 
 @Service
 public class CalendarService {
 
+    // Open-ended bounds for requests without from/to (DATETIME covers years 1000-9999)
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    // Longest allowed event; range reads look back this far for events that started before the window
+    public static final int MAX_EVENT_DAYS = 31;
+
     @Autowired
     private CalendarRepository calendarRepository;
     
@@ -30,66 +36,47 @@ public class CalendarService {
     private AssignmentRepository assignmentRepository;
 
     @Autowired
-    private SubjectRepository subjectRepository;
+    private CalendarFeedService calendarFeedService;
 
     @Autowired
-    private EnrollmentRepository enrollmentRepository; // ⭐️ Added to fetch enrollments
+    private ApplicationEventPublisher eventPublisher;
+
+    // Read from the calendar_feed read model; false falls back to querying the source tables
+    @Value("${calendar.feed.enabled:true}")
+    private boolean feedEnabled;
 
     public List<CalendarEventDTO> getFullCalendarForUser(User user) {
-        List<CalendarEventDTO> allEvents = new ArrayList<>();
-
-        // 1. Fetch Manual Events
-        List<Calendar> calendarEvents = calendarRepository.findByUser(user);
-        allEvents.addAll(calendarEvents.stream()
-            .map(c -> new CalendarEventDTO(
-                c.getEventID(),
-                c.getTitle(),
-                c.getDate(),
-                c.getEndTime() != null ? c.getEndTime() : c.getDate().plusHours(1),
-                "EVENT",
-                false,
-                c.getLocation(),
-                c.getDescription()
-            )).collect(Collectors.toList()));
-
-        // 2. Fetch Assignments
-        List<Assignment> allAssignments = new ArrayList<>();
-        allAssignments.addAll(assignmentRepository.findByUserOrderByDueDateAsc(user));
-
-        if (user.getRole().equals("STUDENT")) {
-            List<Enrollment> enrollments = enrollmentRepository.findByStudentId(user.getId());
-            for (Enrollment enrollment : enrollments) {
-                Subject subject = enrollment.getSubject();
-                // Ensure AssignmentRepository has findBySubject(Subject s)
-                allAssignments.addAll(assignmentRepository.findBySubject(subject));
-            }
-        } else if (user.getRole().equals("TEACHER")) {
-            List<Subject> teacherSubjects = subjectRepository.findByTeacherId(user.getId());
-            for (Subject sub : teacherSubjects) {
-                allAssignments.addAll(assignmentRepository.findBySubject(sub));
-            }
+        return getCalendarForUser(user, null, null);
+    }
+
+    // Calendar entries in [from, to) (either bound may be null) in two queries: the user's events, then
+    // all assignments from their own list and their enrolled / taught subjects. Cost follows the number
+    // of entries in the window rather than the user's whole history times their subjects.
+    public List<CalendarEventDTO> getCalendarForUser(User user, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (feedEnabled) {
+            return calendarFeedService.findForUser(user.getId(), start, end);
         }
 
-        // Add distinct Assignments to the event list
-        allEvents.addAll(allAssignments.stream()
-            .filter(a -> a.getDueDate() != null)
-            .distinct()
-            .map(a -> new CalendarEventDTO(
-                a.getActivityId(),
-                a.getTitle() + " (Due)",
-                a.getDueDate().atStartOfDay(),
-                a.getDueDate().atStartOfDay().plusHours(1),
-                "ASSIGNMENT",
-                a.getCompleted(),
-                null, // ⭐️ Location is null for assignments
-                a.getDescription() // ⭐️ Description comes from assignment
-            )).collect(Collectors.toList()));
+        List<CalendarEventDTO> allEvents = new ArrayList<>(calendarRepository.findEventsInRange(user.getId(),
+            earliestStart(start).atStartOfDay(), start.atStartOfDay(), end.atStartOfDay()));
+        for (CalendarEventDTO event : allEvents) {
+            if (event.getEnd() == null) {
+                event.setEnd(event.getStart().plusHours(1));
+            }
+        }
 
+        allEvents.addAll(assignmentRepository.findCalendarEntriesInRange(user.getId(),
+            "STUDENT".equals(user.getRole()), "TEACHER".equals(user.getRole()), start, end));
         return allEvents;
-    
     }
 
     public Calendar createEvent(CreateEventRequest request, User user) {
+        validateSpan(request);
         Calendar newEvent = new Calendar();
         newEvent.setTitle(request.getTitle());
         newEvent.setDate(request.getDate());
@@ -99,7 +86,9 @@ public class CalendarService {
         newEvent.setDescription(request.getDescription());
         newEvent.setUser(user);
         newEvent.setSubject(null); 
-        return calendarRepository.save(newEvent);
+        Calendar saved = calendarRepository.save(newEvent);
+        eventPublisher.publishEvent(CalendarChangeEvent.eventSaved(saved.getEventID()));
+        return saved;
     }
 
     // ⭐️ NEW: Update an existing event
@@ -112,16 +101,23 @@ public class CalendarService {
             if (!event.getUser().getId().equals(user.getId())) {
                 throw new RuntimeException("Unauthorized: You do not own this event.");
             }
+            validateSpan(request);
 
             // Update fields
             event.setTitle(request.getTitle());
             event.setDate(request.getDate()); // Start Time
             event.setEndTime(request.getEndTime());
+            if (!Objects.equals(event.getReminderTime(), request.getReminderTime())) {
+                // A moved reminder is due again
+                event.setReminderSentAt(null);
+            }
             event.setReminderTime(request.getReminderTime());
             event.setLocation(request.getLocation());
             event.setDescription(request.getDescription());
 
-            return calendarRepository.save(event);
+            Calendar saved = calendarRepository.save(event);
+            eventPublisher.publishEvent(CalendarChangeEvent.eventSaved(saved.getEventID()));
+            return saved;
         }
         return null;
     }
@@ -136,8 +132,23 @@ public class CalendarService {
                 throw new RuntimeException("Unauthorized");
             }
             calendarRepository.delete(event);
+            eventPublisher.publishEvent(CalendarChangeEvent.eventDeleted(eventId));
             return true;
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // Earliest start of an event that can still overlap a window beginning at from
+    static LocalDate earliestStart(LocalDate from) {
+        LocalDate earliest = from.minusDays(MAX_EVENT_DAYS);
+        return earliest.isBefore(EARLIEST) ? EARLIEST : earliest;
+    }
+
+    // Range reads only look MAX_EVENT_DAYS back from the window, so longer events would go missing
+    private void validateSpan(CreateEventRequest request) {
+        if (request.getDate() != null && request.getEndTime() != null
+                && request.getEndTime().isAfter(request.getDate().plusDays(MAX_EVENT_DAYS))) {
+            throw new IllegalArgumentException("Events can last at most " + MAX_EVENT_DAYS + " days");
+        }
+    }
+}
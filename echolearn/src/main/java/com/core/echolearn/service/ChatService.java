@@ -16,11 +16,16 @@ public class ChatService {
     @Autowired
     private ChatRepository chatRepository;
     
+    @Autowired
+    private MessagePushService messagePushService;
+    
     public Chat sendMessage(Chat chat) {
         chat.setTimestamp(LocalDateTime.now());
         chat.setIsEdited(false);
         chat.setIsDeleted(false);
-        return chatRepository.save(chat);
+        Chat savedChat = chatRepository.save(chat);
+        messagePushService.publishChat(savedChat, MessagePushService.CREATED);
+        return savedChat;
     }
     
     public Chat editMessage(Long chatId, String newContent) {
@@ -29,7 +34,9 @@ public class ChatService {
             Chat chat = chatOpt.get();
             chat.setContent(newContent);
             chat.setIsEdited(true);
-            return chatRepository.save(chat);
+            Chat savedChat = chatRepository.save(chat);
+            messagePushService.publishChat(savedChat, MessagePushService.EDITED);
+            return savedChat;
         }
         return null;
     }
@@ -41,6 +48,7 @@ public class ChatService {
             chat.setIsDeleted(true);
             chat.setContent("[Message deleted]");
             chatRepository.save(chat);
+            messagePushService.publishChat(chat, MessagePushService.DELETED);
             return true;
         }
         return false;
@@ -0,0 +1,157 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.dto.FileUploadResultDTO;
+import com.core.echolearn.entity.UploadSession;
+import com.core.echolearn.repository.UploadSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+// Resumable uploads: init -> PUT chunks at offsets -> complete.
+// Chunks are written at their offset into a temp file (positional FileChannel writes), so memory use is one buffer
+// regardless of file size; a client that lost its connection asks for receivedBytes and continues from there.
+@Service
+public class ChunkedUploadService {
+
+    public static final long MAX_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${file.chunked.max-size:2GB}")
+    private DataSize maxSize;
+
+    @Value("${file.chunked.expire-hours:24}")
+    private long expireHours;
+
+    // Striped by upload id: a fixed set of monitors, so nothing accumulates for expired, aborted or unknown
+    // sessions, and no lock is ever swapped out while another request still waits on it
+    private static final int LOCK_STRIPES = 64;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ChunkedUploadService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public UploadSession init(String fileName, String contentType, long totalSize) throws IOException {
+        String originalFileName = StringUtils.cleanPath(fileName == null ? "" : fileName);
+        if (originalFileName.isEmpty() || originalFileName.contains("..")) {
+            throw new IllegalArgumentException("Invalid file name " + fileName);
+        }
+        if (totalSize <= 0 || totalSize > maxSize.toBytes()) {
+            throw new IllegalArgumentException("File size must be between 1 byte and " + maxSize);
+        }
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), originalFileName, contentType, totalSize);
+        Path part = partPath(session.getUploadId());
+        Files.createDirectories(part.getParent());
+        Files.createFile(part);
+        return uploadSessionRepository.save(session);
+    }
+
+    public Optional<UploadSession> findSession(String uploadId) {
+        return uploadSessionRepository.findById(uploadId);
+    }
+
+    // A chunk may start anywhere up to receivedBytes, so a retried chunk simply overwrites the same bytes
+    public UploadSession writeChunk(String uploadId, long offset, InputStream body) throws IOException {
+        synchronized (lockFor(uploadId)) {
+            UploadSession session = requireSession(uploadId);
+            if (offset < 0 || offset > session.getReceivedBytes()) {
+                throw new IllegalStateException("Chunk must start at or before offset " + session.getReceivedBytes());
+            }
+
+            long limit = Math.min(MAX_CHUNK_SIZE, session.getTotalSize() - offset);
+            long position = offset;
+            ReadableByteChannel in = Channels.newChannel(body);
+            try (FileChannel channel = FileChannel.open(partPath(uploadId), StandardOpenOption.WRITE)) {
+                while (position - offset < limit) {
+                    long written = channel.transferFrom(in, position, limit - (position - offset));
+                    if (written <= 0) {
+                        break;
+                    }
+                    position += written;
+                }
+            }
+            if (body.read() != -1) {
+                throw new IllegalArgumentException("Chunk exceeds " + MAX_CHUNK_SIZE + " bytes or the declared file size");
+            }
+
+            session.setReceivedBytes(Math.max(session.getReceivedBytes(), position));
+            return uploadSessionRepository.save(session);
+        }
+    }
+
+    // Moves the assembled file into FileStorageService and returns its "uuid|originalFileName" reference
+    public FileUploadResultDTO complete(String uploadId) {
+        synchronized (lockFor(uploadId)) {
+            UploadSession session = requireSession(uploadId);
+            if (session.getReceivedBytes() < session.getTotalSize()) {
+                throw new IllegalStateException("Upload incomplete: " + session.getReceivedBytes()
+                    + " of " + session.getTotalSize() + " bytes received");
+            }
+
+            FileUploadResultDTO result = fileStorageService.storeLocalFile(
+                partPath(uploadId), session.getOriginalFileName(), session.getContentType());
+            uploadSessionRepository.delete(session);
+            return result;
+        }
+    }
+
+    public void abort(String uploadId) throws IOException {
+        synchronized (lockFor(uploadId)) {
+            UploadSession session = requireSession(uploadId);
+            Files.deleteIfExists(partPath(uploadId));
+            uploadSessionRepository.delete(session);
+        }
+    }
+
+    // Garbage-collects sessions that have not received a chunk within the expiry window
+    @Scheduled(fixedRateString = "${file.chunked.cleanup-ms:3600000}")
+    public void removeAbandonedSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(expireHours);
+        for (UploadSession session : uploadSessionRepository.findByUpdatedAtBefore(cutoff)) {
+            try {
+                abort(session.getUploadId());
+            } catch (IOException | NoSuchElementException e) {
+                // Completed or removed concurrently; the next run retries anything left behind
+            }
+        }
+    }
+
+    private UploadSession requireSession(String uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+            .orElseThrow(() -> new NoSuchElementException("Upload not found"));
+    }
+
+    private Object lockFor(String uploadId) {
+        return locks[Math.floorMod(uploadId.hashCode(), LOCK_STRIPES)];
+    }
+
+    // Only called with ids of existing sessions (server-generated UUIDs)
+    private Path partPath(String uploadId) {
+        return fileStorageService.getTempLocation().resolve("chunked").resolve(uploadId + ".part");
+    }
+}
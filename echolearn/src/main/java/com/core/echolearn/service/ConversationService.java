@@ -1,5 +1,7 @@
 package com.core.echolearn.service;
 
+import com.core.echolearn.dto.ConversationInboxDTO;
+import com.core.echolearn.dto.FilesReleasedEvent;
 import com.core.echolearn.entity.Conversation;
 import com.core.echolearn.entity.Message;
 import com.core.echolearn.entity.SideChat;
@@ -8,16 +10,26 @@ import com.core.echolearn.repository.ConversationRepository;
 import com.core.echolearn.repository.MessageRepository;
 import com.core.echolearn.repository.SideChatRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ConversationService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private ConversationRepository conversationRepository;
     
@@ -27,10 +39,34 @@ public class ConversationService {
     @Autowired
     private SideChatRepository sideChatRepository;
     
+    @Autowired
+    private MessagePushService messagePushService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<Conversation> getUserConversations(User user) {
         return conversationRepository.findByUser(user);
     }
     
+    public List<ConversationInboxDTO> getUserInbox(User user) {
+        return conversationRepository.findInboxByUserId(user.getId());
+    }
+    
+    @Transactional
+    public boolean markConversationRead(Long conversationId, User user) {
+        Optional<Conversation> conversationOpt = conversationRepository.findById(conversationId);
+        
+        if (conversationOpt.isPresent()) {
+            Conversation conversation = conversationOpt.get();
+            conversation.markReadBy(user, LocalDateTime.now());
+            conversationRepository.save(conversation);
+            return true;
+        }
+        
+        return false;
+    }
+    
     public Optional<Conversation> getConversation(Long conversationId) {
         return conversationRepository.findById(conversationId);
     }
@@ -59,6 +95,27 @@ public class ConversationService {
         return List.of();
     }
     
+    // Page of main-thread messages in ascending order. Without a cursor the newest page is returned;
+    // "before" walks back into older history and "after" fetches messages newer than the cursor.
+    public Slice<Message> getConversationMessagesPage(Long conversationId, Long before, Long after, Integer limit) {
+        Optional<Conversation> conversation = conversationRepository.findById(conversationId);
+        if (!conversation.isPresent()) {
+            return new SliceImpl<>(List.of());
+        }
+        
+        Pageable pageable = PageRequest.of(0, clampPageSize(limit));
+        if (after != null) {
+            return messageRepository.findByConversationAndSideChatIsNullAndIsDeletedFalseAndMessageIdGreaterThanOrderByMessageIdAsc(
+                conversation.get(), after, pageable);
+        }
+        if (before != null) {
+            return toAscending(messageRepository.findByConversationAndSideChatIsNullAndIsDeletedFalseAndMessageIdLessThanOrderByMessageIdDesc(
+                conversation.get(), before, pageable));
+        }
+        return toAscending(messageRepository.findByConversationAndSideChatIsNullAndIsDeletedFalseOrderByMessageIdDesc(
+            conversation.get(), pageable));
+    }
+    
     @Transactional
     public Message sendMessage(Long conversationId, User sender, String content) {
         Optional<Conversation> conversationOpt = conversationRepository.findById(conversationId);
@@ -67,11 +124,14 @@ public class ConversationService {
             Conversation conversation = conversationOpt.get();
             Message message = new Message(conversation, sender, content);
             
-            // Update conversation's last message timestamp
-            conversation.setLastMessageAt(LocalDateTime.now());
+            Message savedMessage = messageRepository.save(message);
+            
+            // Update conversation's last message for the inbox
+            conversation.recordLastMessage(savedMessage);
             conversationRepository.save(conversation);
             
-            return messageRepository.save(message);
+            messagePushService.publishMessage(savedMessage, MessagePushService.CREATED);
+            return savedMessage;
         }
         
         return null;
@@ -88,11 +148,14 @@ public class ConversationService {
             message.setFileName(fileName);
             message.setFileType(fileType);
             
-            // Update conversation's last message timestamp
-            conversation.setLastMessageAt(LocalDateTime.now());
+            Message savedMessage = messageRepository.save(message);
+            
+            // Update conversation's last message for the inbox
+            conversation.recordLastMessage(savedMessage);
             conversationRepository.save(conversation);
             
-            return messageRepository.save(message);
+            messagePushService.publishMessage(savedMessage, MessagePushService.CREATED);
+            return savedMessage;
         }
         
         return null;
@@ -107,11 +170,14 @@ public class ConversationService {
             Message message = new Message(sideChat.getConversation(), sender, content);
             message.setSideChat(sideChat);
             
-            // Update conversation's last message timestamp
-            sideChat.getConversation().setLastMessageAt(LocalDateTime.now());
+            Message savedMessage = messageRepository.save(message);
+            
+            // Update conversation's last message for the inbox
+            sideChat.getConversation().recordLastMessage(savedMessage);
             conversationRepository.save(sideChat.getConversation());
             
-            return messageRepository.save(message);
+            messagePushService.publishMessage(savedMessage, MessagePushService.CREATED);
+            return savedMessage;
         }
         
         return null;
@@ -125,7 +191,13 @@ public class ConversationService {
             Message message = messageOpt.get();
             message.setContent(newContent);
             message.setIsEdited(true);
-            return messageRepository.save(message);
+            Message savedMessage = messageRepository.save(message);
+            
+            message.getConversation().refreshLastMessagePreview(savedMessage);
+            conversationRepository.save(message.getConversation());
+            
+            messagePushService.publishMessage(savedMessage, MessagePushService.EDITED);
+            return savedMessage;
         }
         
         return null;
@@ -137,9 +209,20 @@ public class ConversationService {
         
         if (messageOpt.isPresent()) {
             Message message = messageOpt.get();
+            // The attachment goes with the message
+            FilesReleasedEvent released = FilesReleasedEvent.of(message.getFileUrl());
             message.setIsDeleted(true);
             message.setContent("[Message deleted]");
+            message.setFileUrl(null);
+            message.setFileName(null);
+            message.setFileType(null);
             messageRepository.save(message);
+            eventPublisher.publishEvent(released);
+            
+            message.getConversation().refreshLastMessagePreview(message);
+            conversationRepository.save(message.getConversation());
+            
+            messagePushService.publishMessage(message, MessagePushService.DELETED);
             return true;
         }
         
@@ -162,6 +245,25 @@ public class ConversationService {
         return List.of();
     }
     
+    public Slice<Message> getSideChatMessagesPage(Long sideChatId, Long before, Long after, Integer limit) {
+        Optional<SideChat> sideChat = sideChatRepository.findById(sideChatId);
+        if (!sideChat.isPresent()) {
+            return new SliceImpl<>(List.of());
+        }
+        
+        Pageable pageable = PageRequest.of(0, clampPageSize(limit));
+        if (after != null) {
+            return messageRepository.findBySideChatAndIsDeletedFalseAndMessageIdGreaterThanOrderByMessageIdAsc(
+                sideChat.get(), after, pageable);
+        }
+        if (before != null) {
+            return toAscending(messageRepository.findBySideChatAndIsDeletedFalseAndMessageIdLessThanOrderByMessageIdDesc(
+                sideChat.get(), before, pageable));
+        }
+        return toAscending(messageRepository.findBySideChatAndIsDeletedFalseOrderByMessageIdDesc(
+            sideChat.get(), pageable));
+    }
+    
     @Transactional
     public SideChat createSideChat(Long conversationId, String title, User createdBy) {
         Optional<Conversation> conversationOpt = conversationRepository.findById(conversationId);
@@ -194,8 +296,12 @@ public class ConversationService {
         Optional<Conversation> conversationOpt = conversationRepository.findById(conversationId);
         
         if (conversationOpt.isPresent()) {
+            String[] fileUrls = conversationOpt.get().getMessages().stream()
+                .map(Message::getFileUrl)
+                .toArray(String[]::new);
             // Delete the conversation and cascade will handle messages and side chats
             conversationRepository.deleteById(conversationId);
+            eventPublisher.publishEvent(FilesReleasedEvent.of(fileUrls));
             return true;
         }
         
@@ -209,4 +315,18 @@ public class ConversationService {
         }
         return 0L;
     }
+    
+    private int clampPageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+    
+    // Descending keyset slices are reversed so clients always render oldest-first
+    private Slice<Message> toAscending(Slice<Message> slice) {
+        List<Message> messages = new ArrayList<>(slice.getContent());
+        Collections.reverse(messages);
+        return new SliceImpl<>(messages, slice.getPageable(), slice.hasNext());
+    }
 }
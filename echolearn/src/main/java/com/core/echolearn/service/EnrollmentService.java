@@ -1,5 +1,6 @@
 package com.core.echolearn.service;
 
+import com.core.echolearn.dto.CalendarChangeEvent;
 import com.core.echolearn.dto.EnrollmentDTO;
 import com.core.echolearn.dto.SubjectDTO;
 import com.core.echolearn.entity.Enrollment;
@@ -9,6 +10,7 @@ import com.core.echolearn.repository.EnrollmentRepository;
 import com.core.echolearn.repository.SubjectRepository;
 import com.core.echolearn.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +33,9 @@ public class EnrollmentService {
     @Autowired
     private SubjectService subjectService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Transactional
     public EnrollmentDTO enrollStudent(Long studentId, Long subjectId) {
         
@@ -66,6 +71,7 @@ public class EnrollmentService {
         subject.setEnrolledStudents(subject.getEnrolledStudents() + 1);
         subjectRepository.save(subject);
         
+        eventPublisher.publishEvent(CalendarChangeEvent.enrollmentChanged(studentId, subjectId));
         return convertToDTO(savedEnrollment);
     }
     
@@ -92,6 +98,7 @@ public class EnrollmentService {
         
        
         enrollmentRepository.delete(enrollment);
+        eventPublisher.publishEvent(CalendarChangeEvent.enrollmentChanged(studentId, subjectId));
     }
     
     public List<EnrollmentDTO> getEnrollmentsByStudent(Long studentId) {
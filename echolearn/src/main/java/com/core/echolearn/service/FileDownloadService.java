@@ -0,0 +1,200 @@
+package com.core.echolearn.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serves stored files with conditional requests (ETag / Last-Modified -> 304), single byte ranges (206)
+// and zero-copy transfer: Tomcat sendfile when the connector supports it, FileChannel.transferTo otherwise.
+@Service
+public class FileDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Same threshold Tomcat's DefaultServlet uses; below it a plain copy is cheaper than sendfile setup
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    // Stored names are unique per upload, so the bytes behind a URL never change
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(7, TimeUnit.DAYS).cachePrivate();
+
+    public void serve(Path file, String downloadName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(file, downloadName, false, null, request, response);
+    }
+
+    public void serve(Path file, String downloadName, boolean inline, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        serve(file, downloadName, inline, null, request, response);
+    }
+
+    // inline = shown in the page (previews) rather than saved as a download.
+    // contentEncoding != null: the file holds the content in that encoding (e.g. gzip) and is sent as-is;
+    // byte ranges are then not offered, since they would address the encoded bytes.
+    public void serve(Path file, String downloadName, boolean inline, String contentEncoding,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified)
+            + (contentEncoding != null ? "-" + contentEncoding : "") + "\"";
+
+        if (contentEncoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        } else {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+        // Sets ETag / Last-Modified and answers 304 (or 412) when the client's copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && contentEncoding == null && length > 0 && rangeStillValid(request, etag, lastModified)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // multipart/byteranges is not supported; several ranges get the full entity instead
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    partial = true;
+                }
+            } catch (IllegalArgumentException e) {
+                rejectRange(length, response);
+                return;
+            }
+            // Starts past the end of the file (or an empty suffix range such as "bytes=-0")
+            if (partial && (start >= length || start > end)) {
+                rejectRange(length, response);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        setEntityHeaders(downloadName, inline, response);
+        response.setContentLengthLong(count);
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector streams the file from the kernel page cache after the servlet returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // Streams content that is not available as a local file (remote backends, on-the-fly decoding);
+    // no ranges or validators, the length is unknown up front
+    public void stream(InputStream in, String downloadName, boolean inline, HttpServletResponse response)
+            throws IOException {
+        setEntityHeaders(downloadName, inline, response);
+        in.transferTo(response.getOutputStream());
+    }
+
+    // Whether the request's Accept-Encoding allows the given coding (q=0 means "not acceptable")
+    public static boolean acceptsEncoding(HttpServletRequest request, String encoding) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String part : header.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (coding.equalsIgnoreCase(encoding) || coding.equals("*")) {
+                for (int i = 1; i < params.length; i++) {
+                    String param = params[i].trim();
+                    if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rejectRange(long length, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    private void setEntityHeaders(String downloadName, boolean inline, HttpServletResponse response) {
+        MediaType contentType = MediaTypeFactory.getMediaType(downloadName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (inline && "text".equals(contentType.getType()) && contentType.getCharset() == null) {
+            // Text previews are written as UTF-8
+            contentType = new MediaType(contentType, StandardCharsets.UTF_8);
+        }
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(downloadName, StandardCharsets.UTF_8).build().toString());
+    }
+
+    // If-Range: only honour the Range header when the client's partial copy is of this exact version
+    private boolean rangeStillValid(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
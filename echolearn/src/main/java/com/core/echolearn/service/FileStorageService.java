@@ -1,80 +1,361 @@
 package com.core.echolearn.service;
 
+import com.core.echolearn.dto.FileUploadResultDTO;
+import com.core.echolearn.dto.FilesReleasedEvent;
+import com.core.echolearn.entity.FileBlob;
+import com.core.echolearn.entity.StoredFile;
+import com.core.echolearn.repository.FileBlobRepository;
+import com.core.echolearn.repository.StoredFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @Service
 public class FileStorageService {
 
-    private final Path fileStorageLocation;
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
 
+    private final Path tempLocation;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private FileBlobRepository fileBlobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PreviewService previewService;
+
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private Executor uploadExecutor;
+
+    // Content-addressed mode: identical uploads share one blob under blobs/ab/cd/<sha256>
+    @Value("${file.storage.dedup:true}")
+    private boolean dedup;
+
+    @Value("${file.storage.presign-ttl-minutes:10}")
+    private long presignTtlMinutes;
+
+    // Text-like content is gzipped at rest (content-addressed mode only) when that saves at least 10%
+    @Value("${file.storage.compress:true}")
+    private boolean compress;
+
+    @Value("${file.storage.compress-min-size:1KB}")
+    private DataSize compressMinSize;
+
+    // Uploads are hashed in a local temp directory before they are handed to the BlobStore
     public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
-        this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.tempLocation = Paths.get(uploadDir).toAbsolutePath().normalize().resolve("tmp");
         try {
-            Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
     }
 
     public String storeFile(MultipartFile file) {
-        // Normalize file name
+        return storeFileWithResult(file).getFileName();
+    }
+
+    // Stores each non-empty file on the upload executor and waits for all of them; one failure does not
+    // abort the others, every file gets its own result
+    public List<FileUploadResultDTO> storeFiles(List<MultipartFile> files) {
+        List<CompletableFuture<FileUploadResultDTO>> futures = new ArrayList<>();
+        for (MultipartFile file : files) {
+            if (file.isEmpty()) {
+                continue;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> storeFileWithResult(file), uploadExecutor)
+                .exceptionally(e -> FileUploadResultDTO.failed(file.getOriginalFilename(),
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage())));
+        }
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    public FileUploadResultDTO storeFileWithResult(MultipartFile file) {
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        
         try {
-            // Check if the file's name contains invalid characters
-            if(originalFileName.contains("..")) {
-                throw new RuntimeException("Filename contains invalid path sequence " + originalFileName);
+            // Hash while copying: the content is read exactly once
+            Path temp = Files.createTempFile(tempLocation, "upload-", ".tmp");
+            try {
+                MessageDigest digest = sha256();
+                long size;
+                try (InputStream hashing = new DigestInputStream(file.getInputStream(), digest)) {
+                    size = Files.copy(hashing, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return commit(temp, HexFormat.of().formatHex(digest.digest()), size, originalFileName, file.getContentType());
+            } finally {
+                Files.deleteIfExists(temp);
             }
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
 
-            // Generate unique filename to avoid conflicts
-            String fileExtension = "";
-            int dotIndex = originalFileName.lastIndexOf('.');
-            if (dotIndex > 0) {
-                fileExtension = originalFileName.substring(dotIndex);
+    // Stores a file that is already on local disk (e.g. an assembled chunked upload); the source is moved, not copied
+    public FileUploadResultDTO storeLocalFile(Path source, String originalFileName, String contentType) {
+        originalFileName = StringUtils.cleanPath(originalFileName);
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream hashing = new DigestInputStream(Files.newInputStream(source), digest)) {
+                hashing.transferTo(OutputStream.nullOutputStream());
             }
-            String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return format: uuid|originalFileName for mapping
-            return uniqueFileName + "|" + originalFileName;
+            return commit(source, HexFormat.of().formatHex(digest.digest()), Files.size(source), originalFileName, contentType);
         } catch (IOException ex) {
             throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        } finally {
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException ignored) {
+                // Left for the temp directory cleanup
+            }
         }
     }
 
-    public Path loadFile(String fileName) {
-        // Handle format: uuid|originalFileName
-        String actualFileName = fileName;
-        if (fileName.contains("|")) {
-            actualFileName = fileName.split("\\|")[0];
+    // Scratch space on the same file system as the store, so finished files can be moved in atomically
+    public Path getTempLocation() {
+        return tempLocation;
+    }
+
+    // Moves hashed content into place under a new unique name and returns the "uuid|originalFileName" reference
+    private FileUploadResultDTO commit(Path content, String hash, long size, String originalFileName, String contentType)
+            throws IOException {
+        // Check if the file's name contains invalid characters
+        if(originalFileName.contains("..")) {
+            throw new RuntimeException("Filename contains invalid path sequence " + originalFileName);
+        }
+
+        // Generate unique filename to avoid conflicts
+        String fileExtension = "";
+        int dotIndex = originalFileName.lastIndexOf('.');
+        if (dotIndex > 0) {
+            fileExtension = originalFileName.substring(dotIndex);
         }
-        return fileStorageLocation.resolve(actualFileName).normalize();
+        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+
+        String key;
+        if (dedup) {
+            key = storeContentAddressed(content, hash, size, uniqueFileName, originalFileName, contentType);
+        } else {
+            blobStore.put(uniqueFileName, content, contentType);
+            key = uniqueFileName;
+        }
+        previewService.generateAsync(key, uniqueFileName, contentType);
+
+        // Return format: uuid|originalFileName for mapping
+        return FileUploadResultDTO.stored(originalFileName, uniqueFileName + "|" + originalFileName, size, hash);
+    }
+
+    // Store key of a stored name; StorageCodec.forKey(key) tells how its bytes are encoded
+    public String resolveKey(String fileName) {
+        String storedName = getStoredName(fileName);
+        Optional<FileBlob> blob = fileBlobRepository.findByStoredName(storedName);
+        if (blob.isPresent()) {
+            return StorageCodec.fromName(blob.get().getCodec()).key(blobKey(blob.get().getHash()));
+        }
+        // Uploads from before content addressing are stored under their own name
+        return storedName;
+    }
+
+    // Local file holding the key's bytes as stored (possibly encoded), or null when the backend is not on local disk
+    public Path loadFile(String key) {
+        return blobStore.localPath(key).orElse(null);
+    }
+
+    // The original, decoded content
+    public InputStream openFile(String key) throws IOException {
+        return StorageCodec.forKey(key).decode(blobStore.get(key));
+    }
+
+    // Direct download URL when the backend can serve clients itself; encoded content is labelled with its
+    // Content-Encoding, so only use it for clients that accept that encoding
+    public Optional<URI> presignedDownloadUrl(String key, String downloadName) {
+        return blobStore.presignedGetUrl(key, downloadName, StorageCodec.forKey(key).getContentEncoding(),
+            Duration.ofMinutes(presignTtlMinutes));
     }
 
     public void deleteFile(String fileName) {
         try {
-            // Handle format: uuid|originalFileName
-            String actualFileName = fileName;
-            if (fileName.contains("|")) {
-                actualFileName = fileName.split("\\|")[0];
+            String storedName = getStoredName(fileName);
+            Optional<StoredFile> storedFile = storedFileRepository.findById(storedName);
+            if (storedFile.isPresent()) {
+                releaseReference(storedName, storedFile.get().getBlobHash());
+                return;
             }
-            Path filePath = fileStorageLocation.resolve(actualFileName).normalize();
-            Files.deleteIfExists(filePath);
-        } catch (IOException ex) {
+            blobStore.delete(storedName);
+            previewService.deletePreviews(storedName);
+        } catch (IOException | UncheckedIOException ex) {
             throw new RuntimeException("Could not delete file " + fileName, ex);
         }
     }
+
+    // Deletes files their owner no longer refers to, once that change has committed. A file that cannot be
+    // deleted keeps its reference and stays downloadable; it is only logged.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilesReleased(FilesReleasedEvent event) {
+        for (String storedName : event.getStoredNames()) {
+            try {
+                deleteFile(storedName);
+            } catch (RuntimeException e) {
+                log.warn("Could not delete released file {}", storedName, e);
+            }
+        }
+    }
+
+    // Name the client should save the file as: the uploader's original name, or the stored name for
+    // files from before original names were recorded
+    public String getDownloadName(String fileName) {
+        String storedName = getStoredName(fileName);
+        return storedFileRepository.findById(storedName)
+            .map(StoredFile::getOriginalFileName)
+            .filter(StringUtils::hasText)
+            .orElse(storedName);
+    }
+
+    // Handle format: uuid|originalFileName
+    public String getStoredName(String fileName) {
+        if (fileName.contains("|")) {
+            return fileName.split("\\|")[0];
+        }
+        return fileName;
+    }
+
+    // Records the reference, then keeps the hashed temp file only if its content is not stored yet.
+    // Returns the key the content is stored under. If the content cannot be stored the reference is
+    // taken back, so no stored name points at missing bytes.
+    private String storeContentAddressed(Path temp, String hash, long size, String storedName,
+                                         String originalFileName, String contentType) throws IOException {
+        try {
+            addReference(hash, size, storedName, originalFileName, contentType);
+        } catch (DataIntegrityViolationException e) {
+            // Another upload of the same content created the blob row first; count ours against it
+            addReference(hash, size, storedName, originalFileName, contentType);
+        }
+
+        try {
+            return storeContent(temp, hash, size, originalFileName, contentType);
+        } catch (IOException | RuntimeException e) {
+            try {
+                releaseReference(storedName, hash);
+            } catch (RuntimeException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+    }
+
+    private String storeContent(Path temp, String hash, long size, String originalFileName, String contentType)
+            throws IOException {
+        String key = blobKey(hash);
+        StorageCodec stored = fileBlobRepository.findById(hash)
+            .map(blob -> StorageCodec.fromName(blob.getCodec()))
+            .orElse(StorageCodec.IDENTITY);
+        if (stored != StorageCodec.IDENTITY || blobStore.exists(key)) {
+            return stored.key(key);
+        }
+
+        if (compress && size >= compressMinSize.toBytes() && PreviewService.isText(originalFileName, contentType)) {
+            Path compressed = Files.createTempFile(tempLocation, "gzip-", ".tmp");
+            try {
+                StorageCodec.GZIP.encode(temp, compressed);
+                if (Files.size(compressed) <= size * 9 / 10) {
+                    blobStore.put(StorageCodec.GZIP.key(key), compressed, contentType);
+                    // Recorded only once the bytes are in place, so readers never see a codec without content
+                    transactionTemplate.executeWithoutResult(status ->
+                        fileBlobRepository.updateCodec(hash, StorageCodec.GZIP.getContentEncoding()));
+                    return StorageCodec.GZIP.key(key);
+                }
+            } finally {
+                Files.deleteIfExists(compressed);
+            }
+        }
+        blobStore.put(key, temp, contentType);
+        return key;
+    }
+
+    private void addReference(String hash, long size, String storedName, String originalFileName, String contentType) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (fileBlobRepository.incrementRefCount(hash) == 0) {
+                fileBlobRepository.saveAndFlush(new FileBlob(hash, size));
+            }
+            storedFileRepository.save(new StoredFile(storedName, hash, originalFileName, contentType, size));
+        });
+    }
+
+    // Drops one reference to a blob. The blob's content is deleted in the same transaction that removes its
+    // last reference: the row stays locked by the update until commit, so an upload of the same content
+    // waits in incrementRefCount and then finds no row, recreates it and stores the bytes again, instead of
+    // seeing the old bytes as present just before they are deleted.
+    // Always a transaction of its own: after-commit listeners would otherwise join the one that just finished.
+    private void releaseReference(String storedName, String hash) {
+        TransactionTemplate releasing = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        releasing.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        releasing.executeWithoutResult(status -> {
+            storedFileRepository.deleteById(storedName);
+            fileBlobRepository.decrementRefCount(hash);
+            if (fileBlobRepository.deleteIfUnreferenced(hash) == 0) {
+                return;
+            }
+            try {
+                for (StorageCodec codec : StorageCodec.values()) {
+                    blobStore.delete(codec.key(blobKey(hash)));
+                    previewService.deletePreviews(codec.key(blobKey(hash)));
+                }
+            } catch (IOException e) {
+                // Rolls the references back too; the file stays downloadable and can be deleted again
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String blobKey(String hash) {
+        return "blobs/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.dto.MessagePushEvent;
+import com.core.echolearn.entity.Chat;
+import com.core.echolearn.entity.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+public class MessagePushService {
+
+    public static final String CREATED = "CREATED";
+    public static final String EDITED = "EDITED";
+    public static final String DELETED = "DELETED";
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // Payloads are built while the entity is still attached, then sent once the transaction commits
+    public void publishMessage(Message message, String eventType) {
+        String destination = message.getSideChat() != null
+            ? "/topic/sidechats/" + message.getSideChat().getSideChatId()
+            : "/topic/conversations/" + message.getConversation().getConversationId();
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("event", eventType);
+        payload.put("id", message.getMessageId());
+        payload.put("conversationId", message.getConversation().getConversationId());
+        if (message.getSideChat() != null) {
+            payload.put("sideChatId", message.getSideChat().getSideChatId());
+        }
+        payload.put("senderId", message.getSender().getId());
+        payload.put("sender", message.getSender().getUsername());
+        payload.put("content", message.getContent());
+        payload.put("timestamp", message.getTimestamp());
+        payload.put("isEdited", message.getIsEdited());
+        payload.put("isDeleted", message.getIsDeleted());
+        payload.put("avatar", message.getSender().getUsername().substring(0, 1).toUpperCase());
+
+        if (message.getFileUrl() != null) {
+            payload.put("fileUrl", message.getFileUrl());
+            payload.put("fileName", message.getFileName());
+            payload.put("fileType", message.getFileType());
+        }
+
+        eventPublisher.publishEvent(new MessagePushEvent(destination, payload));
+    }
+
+    public void publishChat(Chat chat, String eventType) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("event", eventType);
+        payload.put("chatId", chat.getChatId());
+        payload.put("channelName", chat.getChannelName());
+        if (chat.getParentChat() != null) {
+            payload.put("parentChatId", chat.getParentChat().getChatId());
+        }
+        payload.put("userId", chat.getUser().getId());
+        payload.put("username", chat.getUser().getUsername());
+        payload.put("content", chat.getContent());
+        payload.put("timestamp", chat.getTimestamp());
+        payload.put("isEdited", chat.getIsEdited());
+        payload.put("isDeleted", chat.getIsDeleted());
+
+        eventPublisher.publishEvent(new MessagePushEvent("/topic/channels/" + chat.getChannelName(), payload));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessagePush(MessagePushEvent event) {
+        messagingTemplate.convertAndSend(event.getDestination(), event.getPayload());
+    }
+}
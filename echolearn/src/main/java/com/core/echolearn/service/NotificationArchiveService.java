@@ -0,0 +1,71 @@
+package com.core.echolearn.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Moves read notifications older than the retention window into notifications_archive so the live
+// table (and its indexes) only holds recent rows. Works in id-ordered chunks, one transaction each.
+@Service
+public class NotificationArchiveService {
+
+    private static final String COLUMNS = "notif_id, title, message, type, status, is_read, created_at, reference_id, user_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${notification.archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${notification.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${notification.archive.cron:0 30 3 * * *}")
+    public void archiveOldReadNotifications() {
+        archiveReadBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    // Returns the number of rows archived
+    public int archiveReadBefore(LocalDateTime cutoff) {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (moved == null || moved == 0) {
+                return total;
+            }
+            total += moved;
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+            "SELECT notif_id FROM notifications WHERE is_read = TRUE AND created_at < ? ORDER BY notif_id LIMIT ?",
+            Long.class, Timestamp.valueOf(cutoff), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        namedJdbcTemplate.update(
+            "INSERT INTO notifications_archive (" + COLUMNS + ", archived_at) " +
+            "SELECT " + COLUMNS + ", :archivedAt FROM notifications WHERE notif_id IN (:ids)", params);
+        return namedJdbcTemplate.update("DELETE FROM notifications WHERE notif_id IN (:ids)", params);
+    }
+}
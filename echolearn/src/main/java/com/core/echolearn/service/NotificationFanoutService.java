@@ -0,0 +1,103 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.dto.NotificationStreamEvent;
+import com.core.echolearn.entity.Notification;
+import com.core.echolearn.entity.User;
+import com.core.echolearn.repository.EnrollmentRepository;
+import com.core.echolearn.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class NotificationFanoutService {
+    
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size
+    public static final int BATCH_SIZE = 50;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Notify every student enrolled in a subject (except excludedUserId, may be null).
+    // Runs on the notification executor so the caller returns immediately; rows are written in JDBC batches.
+    @Async("notificationExecutor")
+    @Transactional
+    public void notifySubjectStudents(Long subjectId, Long excludedUserId,
+                                      String title, String message, String type, Long referenceId) {
+        List<Long> studentIds = enrollmentRepository.findStudentIdsBySubjectId(subjectId);
+        List<Notification> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> notifiedIds = new ArrayList<>(studentIds.size());
+        
+        for (Long studentId : studentIds) {
+            if (studentId.equals(excludedUserId)) {
+                continue;
+            }
+            
+            Notification notification = new Notification(title, message, type, referenceId);
+            // Reference proxy: only the foreign key is needed, the user row is never loaded
+            notification.setUser(entityManager.getReference(User.class, studentId));
+            batch.add(notification);
+            notifiedIds.add(studentId);
+            
+            if (batch.size() == BATCH_SIZE) {
+                flushBatch(batch);
+            }
+        }
+        flushBatch(batch);
+        unreadCountCache.incrementAfterCommit(notifiedIds);
+    }
+    
+    // Writes notifications that already have their user set (e.g. reminders firing together) in JDBC batches,
+    // joining the caller's transaction
+    @Transactional
+    public void createAll(List<Notification> notifications) {
+        List<Notification> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> notifiedIds = new ArrayList<>(notifications.size());
+
+        for (Notification notification : notifications) {
+            batch.add(notification);
+            notifiedIds.add(notification.getUser().getId());
+
+            if (batch.size() == BATCH_SIZE) {
+                flushBatch(batch);
+            }
+        }
+        flushBatch(batch);
+        unreadCountCache.incrementAfterCommit(notifiedIds);
+    }
+
+    private void flushBatch(List<Notification> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        notificationRepository.saveAll(batch);
+        // Ids are assigned on persist; the stream listener delivers these once the transaction commits
+        for (Notification notification : batch) {
+            eventPublisher.publishEvent(new NotificationStreamEvent(
+                notification.getUser().getId(), NotificationStreamService.NOTIFICATION,
+                NotificationService.toDTO(notification)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        batch.clear();
+    }
+}
@@ -1,22 +1,55 @@
 package com.core.echolearn.service;
 
+import com.core.echolearn.dto.NotificationDTO;
+import com.core.echolearn.dto.NotificationStreamEvent;
 import com.core.echolearn.entity.Notification;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class NotificationService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Notification createNotification(Notification notification) {
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        if (saved.getUser() != null && !Boolean.TRUE.equals(saved.getIsRead())) {
+            unreadCountCache.add(saved.getUser().getId(), 1);
+        }
+        if (saved.getUser() != null) {
+            eventPublisher.publishEvent(new NotificationStreamEvent(
+                saved.getUser().getId(), NotificationStreamService.NOTIFICATION, toDTO(saved)));
+        }
+        return saved;
+    }
+    
+    public static NotificationDTO toDTO(Notification notification) {
+        return new NotificationDTO(notification.getNotifId(), notification.getTitle(), notification.getMessage(),
+            notification.getType(), notification.getStatus(), notification.getIsRead(),
+            notification.getCreatedAt(), notification.getReferenceId());
     }
     
     public Optional<Notification> findById(Long id) {
@@ -31,12 +64,42 @@ public class NotificationService {
         return notificationRepository.findByUserOrderByCreatedAtDesc(user);
     }
     
+    // Cursor is "<createdAt>_<notifId>" of the last row of the previous page (see feedCursor)
+    public Slice<NotificationDTO> getNotificationFeed(Long userId, String cursor, Integer limit) {
+        Pageable pageable = PageRequest.of(0, clampPageSize(limit));
+        if (cursor == null || cursor.isBlank()) {
+            return notificationRepository.findFeedByUserId(userId, pageable);
+        }
+        
+        int separator = cursor.lastIndexOf('_');
+        try {
+            LocalDateTime createdAt = LocalDateTime.parse(cursor.substring(0, separator));
+            Long notifId = Long.valueOf(cursor.substring(separator + 1));
+            return notificationRepository.findFeedByUserIdBefore(userId, createdAt, notifId, pageable);
+        } catch (DateTimeParseException | NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    public String feedCursor(NotificationDTO last) {
+        return last.getCreatedAt() + "_" + last.getNotifId();
+    }
+    
+    public long getNotificationCount(Long userId) {
+        return notificationRepository.countByUserId(userId);
+    }
+    
     public List<Notification> getUnreadNotifications(User user) {
         return notificationRepository.findByUserAndIsRead(user, false);
     }
     
+    // Served from the counter cache; the database is only read when the entry is missing or expired
     public long getUnreadCount(User user) {
-        return notificationRepository.countByUserAndIsRead(user, false);
+        return getUnreadCount(user.getId());
+    }
+    
+    public long getUnreadCount(Long userId) {
+        return unreadCountCache.get(userId);
     }
     
     public List<Notification> getNotificationsByStatus(User user, String status) {
@@ -47,18 +110,31 @@ public class NotificationService {
         Optional<Notification> notificationOpt = notificationRepository.findById(id);
         if (notificationOpt.isPresent()) {
             Notification notification = notificationOpt.get();
+            boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
             notification.markAsRead();
-            return notificationRepository.save(notification);
+            Notification saved = notificationRepository.save(notification);
+            if (wasUnread && saved.getUser() != null) {
+                unreadCountCache.add(saved.getUser().getId(), -1);
+                publishUnreadCount(saved.getUser().getId());
+            }
+            return saved;
         }
         return null;
     }
     
-    public void markAllAsRead(User user) {
-        List<Notification> notifications = notificationRepository.findByUserAndIsRead(user, false);
-        for (Notification notification : notifications) {
-            notification.markAsRead();
-        }
-        notificationRepository.saveAll(notifications);
+    // Single UPDATE; returns the number of notifications that were unread
+    @Transactional
+    public int markAllAsRead(User user) {
+        int updated = notificationRepository.markAllReadByUserId(user.getId());
+        unreadCountCache.reset(user.getId());
+        publishUnreadCount(user.getId());
+        return updated;
+    }
+    
+    // Single DELETE of read notifications created before the cutoff; unread counts are unaffected
+    @Transactional
+    public int clearReadNotifications(User user, LocalDateTime cutoff) {
+        return notificationRepository.deleteReadByUserIdOlderThan(user.getId(), cutoff);
     }
     
     public Notification updateNotificationStatus(Long id, String status) {
@@ -72,6 +148,27 @@ public class NotificationService {
     }
     
     public void deleteNotification(Long id) {
-        notificationRepository.deleteById(id);
+        Optional<Notification> notificationOpt = notificationRepository.findById(id);
+        if (notificationOpt.isPresent()) {
+            Notification notification = notificationOpt.get();
+            notificationRepository.delete(notification);
+            if (!Boolean.TRUE.equals(notification.getIsRead()) && notification.getUser() != null) {
+                unreadCountCache.add(notification.getUser().getId(), -1);
+                publishUnreadCount(notification.getUser().getId());
+            }
+        }
+    }
+    
+    // Lets every open tab of the user resync its badge
+    private void publishUnreadCount(Long userId) {
+        eventPublisher.publishEvent(new NotificationStreamEvent(
+            userId, NotificationStreamService.UNREAD_COUNT, Map.of("unreadCount", unreadCountCache.get(userId))));
+    }
+    
+    private int clampPageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 }
@@ -0,0 +1,258 @@
+package com.core.echolearn.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+// Small derivatives so chat and attachment lists never need the original: a JPEG thumbnail for images
+// and the first lines of text files. They live in the BlobStore next to the original ("<key>.thumb.jpg",
+// "<key>.preview.txt"), so deduplicated uploads share one set of derivatives.
+@Service
+public class PreviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviewService.class);
+
+    public static final int THUMBNAIL_SIZE = 320;
+    public static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+    public static final String TEXT_SUFFIX = ".preview.txt";
+
+    private static final int TEXT_PREVIEW_BYTES = 4 * 1024;
+    private static final int TEXT_PREVIEW_LINES = 40;
+
+    // Decode time grows with width * height; larger images (or decompression bombs) get no thumbnail
+    private static final long MAX_IMAGE_PIXELS = 50_000_000L;
+
+    private static final Set<String> TEXT_EXTENSIONS = Set.of(
+        "txt", "md", "csv", "tsv", "log", "json", "xml", "yml", "yaml", "properties", "sql",
+        "java", "py", "js", "jsx", "ts", "c", "cpp", "h", "cs", "html", "css");
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${file.storage.presign-ttl-minutes:10}")
+    private long presignTtlMinutes;
+
+    private final Path tempLocation;
+
+    public PreviewService(@Value("${file.upload-dir}") String uploadDir) {
+        this.tempLocation = Paths.get(uploadDir).toAbsolutePath().normalize().resolve("tmp");
+    }
+
+    // Called after an upload is stored; runs on the preview executor so the upload response is not delayed
+    @Async("previewExecutor")
+    public void generateAsync(String key, String fileName, String contentType) {
+        try {
+            findOrGenerate(key, fileName, contentType);
+        } catch (Exception e) {
+            // Unreadable or unsupported content; the preview endpoint retries on demand
+            log.warn("Could not generate a preview for {} ({})", fileName, key, e);
+        }
+    }
+
+    // Key of the derivative for this original, generating it first if it does not exist yet
+    // (e.g. uploads from before previews, or a failed background run). Empty when the type has no preview.
+    public Optional<String> findOrGenerate(String key, String fileName, String contentType) throws IOException {
+        String previewKey = previewKey(key, fileName, contentType);
+        if (previewKey == null) {
+            return Optional.empty();
+        }
+        if (!blobStore.exists(previewKey)) {
+            if (previewKey.endsWith(THUMBNAIL_SUFFIX)) {
+                if (!writeThumbnail(key, previewKey)) {
+                    return Optional.empty();
+                }
+            } else {
+                writeTextPreview(key, previewKey);
+            }
+        }
+        return Optional.of(previewKey);
+    }
+
+    public Optional<URI> presignedUrl(String previewKey) {
+        return blobStore.presignedGetUrl(previewKey, null, null, Duration.ofMinutes(presignTtlMinutes));
+    }
+
+    public Path loadPreview(String previewKey) {
+        return blobStore.localPath(previewKey).orElse(null);
+    }
+
+    public InputStream openPreview(String previewKey) throws IOException {
+        return blobStore.get(previewKey);
+    }
+
+    // Removes derivatives together with their original
+    public void deletePreviews(String key) throws IOException {
+        blobStore.delete(key + THUMBNAIL_SUFFIX);
+        blobStore.delete(key + TEXT_SUFFIX);
+    }
+
+    private String previewKey(String key, String fileName, String contentType) {
+        MediaType mediaType = mediaType(fileName, contentType);
+        if ("image".equals(mediaType.getType())
+                && ImageIO.getImageReadersByMIMEType(mediaType.getType() + "/" + mediaType.getSubtype()).hasNext()) {
+            return key + THUMBNAIL_SUFFIX;
+        }
+        if (isText(fileName, contentType)) {
+            return key + TEXT_SUFFIX;
+        }
+        return null;
+    }
+
+    // Plain text, markup, data and source files, by content type or extension
+    public static boolean isText(String fileName, String contentType) {
+        MediaType mediaType = mediaType(fileName, contentType);
+        int dotIndex = fileName.lastIndexOf('.');
+        String extension = dotIndex >= 0 ? fileName.substring(dotIndex + 1).toLowerCase(Locale.ROOT) : "";
+        return "text".equals(mediaType.getType()) || TEXT_EXTENSIONS.contains(extension);
+    }
+
+    private static MediaType mediaType(String fileName, String contentType) {
+        MediaType mediaType = null;
+        if (contentType != null) {
+            try {
+                mediaType = MediaType.parseMediaType(contentType);
+            } catch (IllegalArgumentException e) {
+                // Fall back to the file name
+            }
+        }
+        if (mediaType == null || MediaType.APPLICATION_OCTET_STREAM.equals(mediaType)) {
+            mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+        return mediaType;
+    }
+
+    // Decodes with source subsampling, so a 24 MP photo is read at roughly thumbnail resolution
+    // instead of being fully decoded and then scaled down
+    private boolean writeThumbnail(String key, String previewKey) throws IOException {
+        BufferedImage source;
+        StorageCodec codec = StorageCodec.forKey(key);
+        Optional<Path> local = codec == StorageCodec.IDENTITY ? blobStore.localPath(key) : Optional.empty();
+        if (local.isPresent() && !Files.isRegularFile(local.get())) {
+            throw new NoSuchFileException(key);
+        }
+        try (InputStream in = local.isPresent() ? null : codec.decode(blobStore.get(key));
+             ImageInputStream imageInput = ImageIO.createImageInputStream(
+                 local.isPresent() ? local.get().toFile() : in)) {
+            if (imageInput == null) {
+                return false;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_IMAGE_PIXELS) {
+                    return false;
+                }
+                int subsampling = Math.max(1, Math.max(width, height) / (THUMBNAIL_SIZE * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        // JPEG has no alpha channel: transparent areas are flattened onto white
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path temp = Files.createTempFile(tempLocation, "preview-", ".jpg");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0.8f);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(thumbnail, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            blobStore.put(previewKey, temp, MediaType.IMAGE_JPEG_VALUE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    // Only the head of the file is read, however large the original is
+    private void writeTextPreview(String key, String previewKey) throws IOException {
+        byte[] head;
+        try (InputStream in = StorageCodec.forKey(key).decode(blobStore.get(key))) {
+            head = in.readNBytes(TEXT_PREVIEW_BYTES);
+        }
+        String text = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(ByteBuffer.wrap(head))
+            .toString();
+        if (head.length == TEXT_PREVIEW_BYTES) {
+            // The last line was cut off (possibly mid-character); keep whole lines only
+            int lastNewline = text.lastIndexOf('\n');
+            if (lastNewline > 0) {
+                text = text.substring(0, lastNewline + 1);
+            }
+        }
+        String[] lines = text.split("\r?\n", -1);
+        if (lines.length > TEXT_PREVIEW_LINES) {
+            text = String.join("\n", Arrays.copyOf(lines, TEXT_PREVIEW_LINES)) + "\n";
+        }
+
+        Path temp = Files.createTempFile(tempLocation, "preview-", ".txt");
+        try {
+            Files.writeString(temp, text, StandardCharsets.UTF_8);
+            blobStore.put(previewKey, temp, "text/plain;charset=UTF-8");
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.dto.CalendarChangeEvent;
+import com.core.echolearn.entity.Notification;
+import com.core.echolearn.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Calendar event reminders (calendar_events.reminder_time). Pending reminders due before now + lookahead
+// are loaded in keyset pages and parked on a TimingWheel; every tick fires whatever expired and writes the
+// notifications in one batch. The table stays the source of truth: reminder_sent_at marks delivery and each
+// reminder is re-checked when it fires, so edits, deletes, duplicate timers and restarts never send twice.
+@Service
+public class ReminderService {
+
+    public static final String REMINDER = "REMINDER";
+
+    private static final int FIRE_CHUNK_SIZE = 500;
+
+    private static final DateTimeFormatter START_FORMAT = DateTimeFormatter.ofPattern("MMM d, h:mm a", Locale.ENGLISH);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${calendar.reminder.enabled:true}")
+    private boolean enabled;
+
+    @Value("${calendar.reminder.lookahead-minutes:15}")
+    private long lookaheadMinutes;
+
+    // Reminders missed by more than this (e.g. a long outage) are dropped rather than sent late
+    @Value("${calendar.reminder.max-late-minutes:1440}")
+    private long maxLateMinutes;
+
+    @Value("${calendar.reminder.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    @Value("${calendar.reminder.retry-seconds:60}")
+    private long retrySeconds;
+
+    private final long tickMs;
+
+    private final TimingWheel wheel;
+
+    // End of the window already on the wheel; null until the first load. Guarded by this.
+    private LocalDateTime loadedUntil;
+
+    public ReminderService(@Value("${calendar.reminder.tick-ms:1000}") long tickMs) {
+        this.tickMs = tickMs;
+        this.wheel = new TimingWheel(tickMs, System.currentTimeMillis(), 1024);
+    }
+
+    // Extends the loaded window to now + lookahead. Nothing is kept across restarts: the first load starts
+    // max-late back, so reminders that came due while the application was down are sent on startup.
+    @Scheduled(fixedDelayString = "${calendar.reminder.load-interval-ms:60000}")
+    public synchronized void loadUpcoming() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = loadedUntil != null ? loadedUntil : now.minusMinutes(maxLateMinutes);
+        LocalDateTime until = now.plusMinutes(lookaheadMinutes);
+        if (!from.isBefore(until)) {
+            return;
+        }
+
+        Timestamp afterTime = Timestamp.valueOf(from);
+        long afterId = -1;
+        while (true) {
+            List<PendingReminder> page = jdbcTemplate.query(
+                "SELECT eventid, reminder_time FROM calendar_events " +
+                "WHERE reminder_sent_at IS NULL AND reminder_time >= ? AND reminder_time < ? " +
+                "AND (reminder_time > ? OR eventid > ?) ORDER BY reminder_time, eventid LIMIT ?",
+                (rs, rowNum) -> new PendingReminder(rs.getLong("eventid"), rs.getTimestamp("reminder_time")),
+                afterTime, Timestamp.valueOf(until), afterTime, afterId, loadBatchSize);
+            for (PendingReminder reminder : page) {
+                wheel.schedule(reminder.eventId, reminder.time.getTime());
+            }
+            if (page.size() < loadBatchSize) {
+                break;
+            }
+            PendingReminder last = page.get(page.size() - 1);
+            afterTime = last.time;
+            afterId = last.eventId;
+        }
+        loadedUntil = until;
+    }
+
+    @Scheduled(fixedRateString = "${calendar.reminder.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        long[] due = wheel.advance(System.currentTimeMillis());
+        for (int start = 0; start < due.length; start += FIRE_CHUNK_SIZE) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = start; i < Math.min(due.length, start + FIRE_CHUNK_SIZE); i++) {
+                ids.add(due[i]);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> fire(ids));
+            } catch (RuntimeException e) {
+                // Still unsent in the table; put them back on the wheel rather than waiting for a restart
+                long retryAt = System.currentTimeMillis() + retrySeconds * 1000;
+                ids.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    // A reminder set or moved into the window that is already loaded goes straight onto the wheel; the old
+    // timer of a moved reminder stays and is skipped when it fires
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCalendarChange(CalendarChangeEvent event) {
+        if (!enabled || loadedUntil == null || !CalendarChangeEvent.EVENT_SAVED.equals(event.getKind())) {
+            return;
+        }
+        List<Timestamp> reminderTime = jdbcTemplate.queryForList(
+            "SELECT reminder_time FROM calendar_events WHERE eventid = ? AND reminder_sent_at IS NULL " +
+            "AND reminder_time >= ? AND reminder_time < ?",
+            Timestamp.class, event.getSourceId(),
+            Timestamp.valueOf(LocalDateTime.now().minusMinutes(maxLateMinutes)), Timestamp.valueOf(loadedUntil));
+        if (!reminderTime.isEmpty()) {
+            wheel.schedule(event.getSourceId(), reminderTime.get(0).getTime());
+        }
+    }
+
+    private void fire(List<Long> eventIds) {
+        LocalDateTime now = LocalDateTime.now();
+        // Timers round to whole ticks; a tick of slack keeps sub-tick reminder times from being skipped
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", eventIds)
+            .addValue("dueBy", Timestamp.valueOf(now.plusNanos(tickMs * 1_000_000)))
+            .addValue("sentAt", Timestamp.valueOf(now));
+        // Locked until commit, so an edit racing with the reminder cannot be lost between the check and the mark
+        List<DueReminder> due = namedJdbcTemplate.query(
+            "SELECT eventid, user_id, title, date, location FROM calendar_events " +
+            "WHERE eventid IN (:ids) AND reminder_sent_at IS NULL AND reminder_time < :dueBy FOR UPDATE",
+            params,
+            (rs, rowNum) -> new DueReminder(rs.getLong("eventid"), rs.getLong("user_id"), rs.getString("title"),
+                rs.getTimestamp("date"), rs.getString("location")));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Long> firedIds = new ArrayList<>(due.size());
+        List<Notification> notifications = new ArrayList<>(due.size());
+        for (DueReminder reminder : due) {
+            firedIds.add(reminder.eventId);
+            Notification notification = new Notification("Event Reminder", message(reminder), REMINDER,
+                reminder.eventId);
+            // Reference proxy: only the foreign key is needed, the user row is never loaded
+            notification.setUser(entityManager.getReference(User.class, reminder.userId));
+            notifications.add(notification);
+        }
+        params.addValue("fired", firedIds);
+        namedJdbcTemplate.update("UPDATE calendar_events SET reminder_sent_at = :sentAt WHERE eventid IN (:fired)", params);
+        notificationFanoutService.createAll(notifications);
+    }
+
+    private static String message(DueReminder reminder) {
+        StringBuilder message = new StringBuilder("'").append(reminder.title).append("'");
+        if (reminder.start != null) {
+            message.append(" starts ").append(START_FORMAT.format(reminder.start.toLocalDateTime()));
+        }
+        if (reminder.location != null && !reminder.location.isEmpty()) {
+            message.append(" at ").append(reminder.location);
+        }
+        return message.toString();
+    }
+
+    private static class PendingReminder {
+        private final long eventId;
+        private final Timestamp time;
+
+        private PendingReminder(long eventId, Timestamp time) {
+            this.eventId = eventId;
+            this.time = time;
+        }
+    }
+
+    private static class DueReminder {
+        private final long eventId;
+        private final long userId;
+        private final String title;
+        private final Timestamp start;
+        private final String location;
+
+        private DueReminder(long eventId, long userId, String title, Timestamp start, String location) {
+            this.eventId = eventId;
+            this.userId = userId;
+            this.title = title;
+            this.start = start;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.core.echolearn.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// S3-API backend (AWS S3, MinIO and other compatible stores) using Signature V4, with path-style URLs
+// (endpoint/bucket/key) or virtual-hosted ones (bucket.endpoint/key).
+// Talks plain HTTP through java.net.http so uploads stream from the temp file and downloads stream to the caller.
+@Service
+@ConditionalOnProperty(name = "file.storage.backend", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    // Base of every object URL: the endpoint itself (path-style) or the bucket's host under it
+    private final URI endpoint;
+    private final String bucket;
+    private final boolean pathStyle;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final Clock clock;
+
+    @Autowired
+    public S3BlobStore(@Value("${file.storage.s3.endpoint}") String endpoint,
+                       @Value("${file.storage.s3.bucket}") String bucket,
+                       @Value("${file.storage.s3.path-style:true}") boolean pathStyle,
+                       @Value("${file.storage.s3.region:us-east-1}") String region,
+                       @Value("${file.storage.s3.access-key}") String accessKey,
+                       @Value("${file.storage.s3.secret-key}") String secretKey) {
+        this(endpoint, bucket, pathStyle, region, accessKey, secretKey, Clock.systemUTC());
+    }
+
+    // Fixed clock for signing tests
+    S3BlobStore(String endpoint, String bucket, boolean pathStyle, String region, String accessKey, String secretKey,
+                Clock clock) {
+        URI base = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.endpoint = pathStyle ? base : URI.create(base.getScheme() + "://" + bucket + "." + base.getRawAuthority()
+            + (base.getRawPath() != null ? base.getRawPath() : ""));
+        this.bucket = bucket;
+        this.pathStyle = pathStyle;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.clock = clock;
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        HttpRequest request = signed("PUT", key, Map.of("content-type", contentType != null ? contentType : "application/octet-stream"))
+            .PUT(HttpRequest.BodyPublishers.ofFile(source))
+            .build();
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("S3 PUT " + key + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        HttpResponse<InputStream> response = send(signed("GET", key, Map.of()).GET().build(),
+            HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 404) {
+            response.body().close();
+            throw new NoSuchFileException(key);
+        }
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            throw new IOException("S3 GET " + key + " failed with " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpRequest request = signed("HEAD", key, Map.of())
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build();
+        int status = send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 404) {
+            return false;
+        }
+        if (status / 100 != 2) {
+            throw new IOException("S3 HEAD " + key + " failed with " + status);
+        }
+        return true;
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<String> response = send(signed("DELETE", key, Map.of()).DELETE().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+            throw new IOException("S3 DELETE " + key + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    // Query-string signed GET (X-Amz-* parameters); the browser downloads straight from the object store
+    @Override
+    public Optional<URI> presignedGetUrl(String key, String downloadName, String contentEncoding, Duration ttl) {
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+        String amzDate = AMZ_DATE.format(now);
+        String scope = DATE_STAMP.format(now) + "/" + region + "/s3/aws4_request";
+
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope);
+        query.put("X-Amz-Date", amzDate);
+        query.put("X-Amz-Expires", String.valueOf(ttl.getSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        if (downloadName != null) {
+            query.put("response-content-disposition",
+                ContentDisposition.attachment().filename(downloadName, StandardCharsets.UTF_8).build().toString());
+        }
+        if (contentEncoding != null) {
+            query.put("response-content-encoding", contentEncoding);
+        }
+        String canonicalQuery = query.entrySet().stream()
+            .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+            .collect(Collectors.joining("&"));
+
+        String canonicalRequest = "GET\n" + objectPath(key) + "\n" + canonicalQuery + "\n"
+            + "host:" + hostHeader() + "\n\n" + "host\n" + UNSIGNED_PAYLOAD;
+        String signature = sign(canonicalRequest, amzDate, now);
+
+        return Optional.of(URI.create(endpoint + objectPath(key) + "?" + canonicalQuery + "&X-Amz-Signature=" + signature));
+    }
+
+    // Header-signed request; the body is sent as UNSIGNED-PAYLOAD so it can be streamed
+    private HttpRequest.Builder signed(String method, String key, Map<String, String> extraHeaders) {
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+        String amzDate = AMZ_DATE.format(now);
+
+        Map<String, String> headers = new TreeMap<>(extraHeaders);
+        headers.put("host", hostHeader());
+        headers.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        headers.put("x-amz-date", amzDate);
+
+        String canonicalHeaders = headers.entrySet().stream()
+            .map(e -> e.getKey() + ":" + e.getValue().trim() + "\n")
+            .collect(Collectors.joining());
+        String signedHeaders = String.join(";", headers.keySet());
+        String canonicalRequest = method + "\n" + objectPath(key) + "\n\n" + canonicalHeaders + "\n"
+            + signedHeaders + "\n" + UNSIGNED_PAYLOAD;
+        String signature = sign(canonicalRequest, amzDate, now);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(endpoint + objectPath(key)))
+            .timeout(Duration.ofMinutes(5))
+            .header("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + DATE_STAMP.format(now) + "/"
+                + region + "/s3/aws4_request, SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+        // host is set by the client from the URI and must not be added by hand
+        headers.forEach((name, value) -> {
+            if (!"host".equals(name)) {
+                builder.header(name, value);
+            }
+        });
+        return builder;
+    }
+
+    // Package-private for the published SigV4 test vectors
+    String sign(String canonicalRequest, String amzDate, ZonedDateTime now) {
+        String dateStamp = DATE_STAMP.format(now);
+        String scope = dateStamp + "/" + region + "/s3/aws4_request";
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), dateStamp);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        return HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+    }
+
+    private String objectPath(String key) {
+        StringBuilder path = new StringBuilder();
+        if (pathStyle) {
+            path.append('/').append(encode(bucket));
+        }
+        for (String segment : key.split("/")) {
+            path.append('/').append(encode(segment));
+        }
+        return path.toString();
+    }
+
+    private String hostHeader() {
+        int port = endpoint.getPort();
+        boolean defaultPort = port == -1
+            || ("http".equals(endpoint.getScheme()) && port == 80)
+            || ("https".equals(endpoint.getScheme()) && port == 443);
+        return defaultPort ? endpoint.getHost() : endpoint.getHost() + ":" + port;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted talking to object store", e);
+        }
+    }
+
+    // RFC 3986 encoding as required by SigV4
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+            .replace("+", "%20")
+            .replace("*", "%2A")
+            .replace("%7E", "~");
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
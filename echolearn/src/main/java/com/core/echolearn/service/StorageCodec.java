@@ -0,0 +1,59 @@
+package com.core.echolearn.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// How blob content is encoded at rest. Recorded in file_blobs.codec and reflected in the key suffix,
+// so a key alone tells readers how to decode it. The names double as HTTP Content-Encoding values.
+public enum StorageCodec {
+
+    IDENTITY(null, ""),
+    GZIP("gzip", ".gz");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String contentEncoding;
+    private final String keySuffix;
+
+    StorageCodec(String contentEncoding, String keySuffix) {
+        this.contentEncoding = contentEncoding;
+        this.keySuffix = keySuffix;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public String key(String baseKey) {
+        return baseKey + keySuffix;
+    }
+
+    public InputStream decode(InputStream in) throws IOException {
+        return this == GZIP ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    public void encode(Path source, Path target) throws IOException {
+        if (this == IDENTITY) {
+            Files.copy(source, target);
+            return;
+        }
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), BUFFER_SIZE)) {
+            in.transferTo(out);
+        }
+    }
+
+    public static StorageCodec fromName(String name) {
+        return GZIP.contentEncoding.equals(name) ? GZIP : IDENTITY;
+    }
+
+    // Only content-addressed blobs (blobs/ab/cd/<sha256>) are ever encoded
+    public static StorageCodec forKey(String key) {
+        return key.startsWith("blobs/") && key.endsWith(GZIP.keySuffix) ? GZIP : IDENTITY;
+    }
+}
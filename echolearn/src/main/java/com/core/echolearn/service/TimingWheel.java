@@ -0,0 +1,159 @@
+package com.core.echolearn.service;
+
+import java.util.Arrays;
+
+// Hierarchical timing wheel for a large number of one-shot timers keyed by a long id.
+// Six levels of 64 slots: level k slots are 64^k ticks wide, so scheduling and firing are O(1) per timer
+// (plus one cascade per level it passes through) regardless of how many timers are pending.
+// Timers live in parallel primitive arrays chained into per-slot lists (20 bytes each, no object per timer).
+// Cancellation is left to the caller: stale timers simply fire and are filtered by whoever consumes the ids.
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6;
+    private static final int NONE = -1;
+
+    private final long tickMs;
+
+    // Head of each slot's list, level * SLOTS + slot
+    private final int[] heads = new int[LEVELS * SLOTS];
+
+    // Timer pool; free entries are chained through next
+    private long[] ids;
+    private long[] deadlineTicks;
+    private int[] next;
+    private int used;
+    private int freeHead = NONE;
+    private int size;
+
+    // Next tick to be processed
+    private long currentTick;
+
+    private long[] fired = new long[64];
+    private int firedCount;
+
+    public TimingWheel(long tickMs, long startMs, int initialCapacity) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        this.tickMs = tickMs;
+        this.currentTick = startMs / tickMs;
+        int capacity = Math.max(16, initialCapacity);
+        this.ids = new long[capacity];
+        this.deadlineTicks = new long[capacity];
+        this.next = new int[capacity];
+        Arrays.fill(heads, NONE);
+    }
+
+    // Fires on the first advance at or after deadlineMs; deadlines already passed fire on the next advance
+    public synchronized void schedule(long id, long deadlineMs) {
+        // Rounded up so a timer never fires before its deadline
+        long deadlineTick = Math.max(currentTick, (deadlineMs + tickMs - 1) / tickMs);
+        int entry = allocate();
+        ids[entry] = id;
+        deadlineTicks[entry] = deadlineTick;
+        insert(entry);
+        size++;
+    }
+
+    // Processes every tick up to nowMs and returns the ids of the timers that expired, earliest tick first
+    public synchronized long[] advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        firedCount = 0;
+        while (currentTick <= targetTick) {
+            if (size == 0) {
+                currentTick = targetTick + 1;
+                break;
+            }
+            // Higher levels first: a cascaded timer may land in a lower slot that is cascaded next
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, slot(currentTick, level));
+                }
+            }
+            expire(slot(currentTick, 0));
+            currentTick++;
+        }
+        long[] result = Arrays.copyOf(fired, firedCount);
+        if (fired.length > 4096) {
+            // Don't hold on to the buffer of a burst
+            fired = new long[64];
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Pool slots ever allocated; the arrays are sized for the peak and reused, never shrunk
+    public synchronized int capacity() {
+        return ids.length;
+    }
+
+    // Lowest level whose span still contains both now and the deadline; there the deadline's slot is
+    // ahead of the current one, so the timer is cascaded down (or fired) exactly when its slot comes up
+    private void insert(int entry) {
+        long deadlineTick = deadlineTicks[entry];
+        int level = 0;
+        while (level < LEVELS - 1 && ((deadlineTick ^ currentTick) >>> (SLOT_BITS * (level + 1))) != 0) {
+            level++;
+        }
+        // Beyond the top level's span (2^36 ticks): parked in the top level and re-cascaded until in range
+        int index = level * SLOTS + slot(deadlineTick, level);
+        next[entry] = heads[index];
+        heads[index] = entry;
+    }
+
+    private void cascade(int level, int slot) {
+        int index = level * SLOTS + slot;
+        int entry = heads[index];
+        heads[index] = NONE;
+        while (entry != NONE) {
+            int following = next[entry];
+            insert(entry);
+            entry = following;
+        }
+    }
+
+    private void expire(int slot) {
+        int entry = heads[slot];
+        heads[slot] = NONE;
+        while (entry != NONE) {
+            int following = next[entry];
+            // Level 0 slots hold exactly one tick, so everything here is due now
+            if (firedCount == fired.length) {
+                fired = Arrays.copyOf(fired, fired.length * 2);
+            }
+            fired[firedCount++] = ids[entry];
+            release(entry);
+            size--;
+            entry = following;
+        }
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (used == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            deadlineTicks = Arrays.copyOf(deadlineTicks, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int entry) {
+        next[entry] = freeHead;
+        freeHead = entry;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+}
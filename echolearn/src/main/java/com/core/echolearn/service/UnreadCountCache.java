@@ -0,0 +1,116 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-user unread notification counts, loaded once from the database and then kept current by
+// NotificationService / NotificationFanoutService. Entries expire after a TTL so any drift heals itself.
+// Every change to a user's entry runs inside counts.compute and bumps the user's version; a load only stores
+// its result if the version is unchanged, so a reset or increment racing with a reload is never overwritten.
+@Service
+public class UnreadCountCache {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${notification.unread-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, Entry> counts = new ConcurrentHashMap<>();
+
+    // Only written inside counts.compute for the same user, so reads there are consistent with the entry
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public long get(Long userId) {
+        Entry entry = counts.get(userId);
+        if (entry != null && !entry.isExpired(ttlSeconds)) {
+            return Math.max(0, entry.count.sum());
+        }
+        long version = versions.getOrDefault(userId, 0L);
+        long loaded = notificationRepository.countByUserIdAndIsRead(userId, false);
+        Entry stored = counts.compute(userId, (id, current) ->
+            versions.getOrDefault(id, 0L) == version ? new Entry(loaded) : current);
+        // Changed while loading: the cached value is newer than ours (or was evicted; ours is the best we have)
+        return Math.max(0, stored != null ? stored.count.sum() : loaded);
+    }
+
+    // Adjustments only touch cached entries; a missing entry is loaded fresh on the next read
+    public void add(Long userId, long delta) {
+        counts.compute(userId, (id, current) -> {
+            bump(id);
+            if (current != null) {
+                current.count.add(delta);
+            }
+            return current;
+        });
+    }
+
+    // Applied at once (reads later in the same transaction see 0) and again after commit, which
+    // discards any reload that counted the still-uncommitted rows in between
+    public void reset(Long userId) {
+        zero(userId);
+        afterCommit(() -> zero(userId));
+    }
+
+    public void evict(Long userId) {
+        counts.compute(userId, (id, current) -> {
+            bump(id);
+            return null;
+        });
+    }
+
+    // For writes inside a transaction: apply the +1 only once the rows are committed
+    public void incrementAfterCommit(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userIds.forEach(id -> add(id, 1));
+            return;
+        }
+        afterCommit(() -> userIds.forEach(id -> add(id, 1)));
+    }
+
+    private void zero(Long userId) {
+        counts.compute(userId, (id, current) -> {
+            bump(id);
+            return new Entry(0);
+        });
+    }
+
+    private void bump(Long userId) {
+        versions.merge(userId, 1L, Long::sum);
+    }
+
+    // Runs once the surrounding transaction commits; not at all outside a transaction
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static class Entry {
+        private final LongAdder count = new LongAdder();
+        private final long loadedAt = System.currentTimeMillis();
+
+        Entry(long initial) {
+            count.add(initial);
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - loadedAt > ttlSeconds * 1000;
+        }
+    }
+}
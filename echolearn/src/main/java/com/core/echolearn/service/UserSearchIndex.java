@@ -0,0 +1,133 @@
+package com.core.echolearn.service;
+
+import com.core.echolearn.dto.UserSummaryDTO;
+import com.core.echolearn.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// In-memory n-gram index over username/email for type-ahead search.
+// Every 1..3 character substring maps to the ids containing it: short queries are a single
+// posting lookup, longer ones intersect their trigram postings and verify the candidates.
+@Service
+public class UserSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${user.search.index.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Long, UserSummaryDTO> users = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        for (UserSummaryDTO user : userRepository.findAllSummaries()) {
+            put(user);
+        }
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void put(UserSummaryDTO user) {
+        remove(user.getId());
+        users.put(user.getId(), user);
+        for (String gram : grams(user)) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+    }
+
+    public synchronized void remove(Long userId) {
+        UserSummaryDTO existing = users.remove(userId);
+        if (existing == null) {
+            return;
+        }
+        for (String gram : grams(existing)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(userId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Case-insensitive "contains" match on username or email, ordered by username
+    public List<UserSummaryDTO> search(String query, Long excludedId, int limit) {
+        String q = query.toLowerCase();
+        Collection<Long> candidates;
+
+        if (q.isEmpty()) {
+            candidates = users.keySet();
+        } else if (q.length() <= MAX_GRAM) {
+            candidates = postings.getOrDefault(q, Set.of());
+        } else {
+            candidates = intersectTrigrams(q);
+        }
+
+        return candidates.stream()
+            .filter(id -> !id.equals(excludedId))
+            .map(users::get)
+            .filter(u -> u != null && matches(u, q))
+            .sorted(Comparator.comparing(UserSummaryDTO::getUsername))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    private Collection<Long> intersectTrigrams(String q) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + MAX_GRAM <= q.length(); i++) {
+            Set<Long> ids = postings.get(q.substring(i, i + MAX_GRAM));
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static boolean matches(UserSummaryDTO user, String q) {
+        return user.getUsername().toLowerCase().contains(q) || user.getEmail().toLowerCase().contains(q);
+    }
+
+    private static Set<String> grams(UserSummaryDTO user) {
+        Set<String> grams = new HashSet<>();
+        for (String key : List.of(user.getUsername().toLowerCase(), user.getEmail().toLowerCase())) {
+            for (int n = 1; n <= MAX_GRAM; n++) {
+                for (int i = 0; i + n <= key.length(); i++) {
+                    grams.add(key.substring(i, i + n));
+                }
+            }
+        }
+        return grams;
+    }
+}
@@ -1,8 +1,11 @@
 package com.core.echolearn.service;
 
+import com.core.echolearn.dto.UserSummaryDTO;
 import com.core.echolearn.entity.User;
 import com.core.echolearn.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,9 +17,14 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
     public User createUser(User user) {
         // In a real application, we would hash the password here
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.put(toSummary(savedUser));
+        return savedUser;
     }
     
     public Optional<User> findByEmail(String email) {
@@ -56,11 +64,30 @@ public class UserService {
         return userRepository.findAll();
     }
     
+    // Type-ahead search: in-memory n-gram index when available, otherwise an indexed prefix query
+    public List<UserSummaryDTO> searchUsers(String query, Long excludedId, int limit) {
+        if (userSearchIndex.isReady()) {
+            return userSearchIndex.search(query, excludedId, limit);
+        }
+        return userRepository.searchSummariesByPrefix(query, excludedId, PageRequest.of(0, limit)).getContent();
+    }
+    
+    public Slice<UserSummaryDTO> getUserSummaries(Long excludedId, int page, int size) {
+        return userRepository.findSummariesExcluding(excludedId, PageRequest.of(page, size));
+    }
+    
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.put(toSummary(savedUser));
+        return savedUser;
     }
     
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userSearchIndex.remove(id);
+    }
+    
+    private UserSummaryDTO toSummary(User user) {
+        return new UserSummaryDTO(user.getId(), user.getUsername(), user.getEmail(), user.getRole());
     }
 }
@@ -0,0 +1,5 @@
+-- Event reminders: reminder_sent_at marks a reminder as delivered, so restarts and reloads never send it twice.
+-- The index serves the loader's scan of pending reminders by time.
+
+ALTER TABLE calendar_events ADD COLUMN reminder_sent_at DATETIME(6);
+CREATE INDEX idx_calendar_events_reminder ON calendar_events (reminder_sent_at, reminder_time);
@@ -0,0 +1,15 @@
+-- One row per due-date reminder sent: (assignment, student, window). The key makes the reminder job
+-- idempotent; no foreign keys, old rows are purged by the job once their window can no longer match.
+
+CREATE TABLE assignment_reminders (
+    assignment_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    sent_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (assignment_id, student_id, kind)
+);
+
+CREATE INDEX idx_assignment_reminders_sent ON assignment_reminders (sent_at);
+
+-- Subject-independent due-date range scan for the reminder job
+CREATE INDEX idx_assignments_due ON assignments (due_date);
@@ -0,0 +1,9 @@
+-- Version of the calendar_feed build rules the stored rows were produced with (at most one row). Startup
+-- rebuilds the feed only when this differs from CalendarFeedService.FEED_VERSION, e.g. on first deployment.
+
+CREATE TABLE calendar_feed_state (
+    id INT NOT NULL,
+    version INT NOT NULL,
+    rebuilt_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
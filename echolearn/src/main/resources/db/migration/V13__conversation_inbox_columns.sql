@@ -0,0 +1,8 @@
+-- Denormalized inbox fields on conversations (last message preview and per-participant read marks), so the
+-- inbox and its unread counts come from one query. Kept current by ConversationService.
+
+ALTER TABLE conversations ADD COLUMN last_message_id BIGINT;
+ALTER TABLE conversations ADD COLUMN last_message_preview VARCHAR(255);
+ALTER TABLE conversations ADD COLUMN last_message_sender_id BIGINT;
+ALTER TABLE conversations ADD COLUMN user1_last_read_at DATETIME(6);
+ALTER TABLE conversations ADD COLUMN user2_last_read_at DATETIME(6);
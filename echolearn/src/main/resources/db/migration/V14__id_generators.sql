@@ -0,0 +1,7 @@
+-- Backing table for JPA table-generated ids: notifications moved off IDENTITY so fan-out inserts can be batched.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+);
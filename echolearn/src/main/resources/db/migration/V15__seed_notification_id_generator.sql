@@ -0,0 +1,7 @@
+-- Start the notifications table generator above every id handed out while notif_id was IDENTITY.
+-- Hibernate's pooled optimizer may return ids up to one allocation (Notification.ID_ALLOCATION_SIZE = 50)
+-- below next_val, so the floor is MAX(notif_id) + 50 + 1. Seeding here, before the application starts,
+-- keeps the first request or scheduled fan-out from drawing ids that are already taken.
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'notifications', COALESCE(MAX(notif_id), 0) + 51 FROM notifications;
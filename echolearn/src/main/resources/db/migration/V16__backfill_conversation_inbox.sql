@@ -0,0 +1,26 @@
+-- Fill the V13 inbox columns for conversations that already had messages: the newest message becomes the
+-- last message (preview cut to Conversation.PREVIEW_LENGTH = 255) and counts as read by its sender, as
+-- Conversation.recordLastMessage does for new messages. Each column reads the message chosen by the first
+-- statement, so the result does not depend on the order MySQL or H2 applies SET assignments in.
+
+UPDATE conversations SET last_message_id = (
+    SELECT m.message_id FROM messages m
+    WHERE m.conversation_id = conversations.conversation_id
+    ORDER BY m.timestamp DESC, m.message_id DESC
+    LIMIT 1
+)
+WHERE last_message_id IS NULL;
+
+UPDATE conversations SET
+    last_message_sender_id = (SELECT m.sender_id FROM messages m WHERE m.message_id = conversations.last_message_id),
+    last_message_preview = (SELECT LEFT(m.content, 255) FROM messages m WHERE m.message_id = conversations.last_message_id),
+    last_message_at = (SELECT m.timestamp FROM messages m WHERE m.message_id = conversations.last_message_id),
+    user1_last_read_at = CASE
+        WHEN user1_id = (SELECT m.sender_id FROM messages m WHERE m.message_id = conversations.last_message_id)
+        THEN (SELECT m.timestamp FROM messages m WHERE m.message_id = conversations.last_message_id)
+        ELSE user1_last_read_at END,
+    user2_last_read_at = CASE
+        WHEN user2_id = (SELECT m.sender_id FROM messages m WHERE m.message_id = conversations.last_message_id)
+        THEN (SELECT m.timestamp FROM messages m WHERE m.message_id = conversations.last_message_id)
+        ELSE user2_last_read_at END
+WHERE last_message_id IS NOT NULL AND last_message_sender_id IS NULL;
@@ -0,0 +1,181 @@
+-- Baseline schema matching the JPA entities as previously created by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at version 1 and skip this script.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    is_verified BOOLEAN,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE subjects (
+    subject_id BIGINT NOT NULL AUTO_INCREMENT,
+    subject_name VARCHAR(255) NOT NULL,
+    subject_code VARCHAR(255) NOT NULL,
+    subject_desc TEXT,
+    subject_schedule DATETIME(6) NOT NULL,
+    subject_capacity INTEGER NOT NULL,
+    enrolled_students INTEGER NOT NULL,
+    created_at DATETIME(6),
+    teacher_id BIGINT NOT NULL,
+    PRIMARY KEY (subject_id),
+    CONSTRAINT fk_subjects_teacher FOREIGN KEY (teacher_id) REFERENCES users (id)
+);
+
+CREATE TABLE enrollments (
+    enrollment_id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    enrolled_at DATETIME(6),
+    PRIMARY KEY (enrollment_id),
+    CONSTRAINT fk_enrollments_student FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fk_enrollments_subject FOREIGN KEY (subject_id) REFERENCES subjects (subject_id)
+);
+
+CREATE TABLE assignments (
+    activity_id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    due_date DATE,
+    estimated_time INTEGER,
+    difficulty VARCHAR(255) NOT NULL,
+    completed BOOLEAN NOT NULL,
+    created_at DATETIME(6),
+    file_names VARCHAR(2000),
+    allow_late_submission BOOLEAN,
+    max_points INTEGER,
+    user_id BIGINT,
+    subject_id BIGINT,
+    PRIMARY KEY (activity_id),
+    CONSTRAINT fk_assignments_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_assignments_subject FOREIGN KEY (subject_id) REFERENCES subjects (subject_id)
+);
+
+CREATE TABLE assignment_submissions (
+    submission_id BIGINT NOT NULL AUTO_INCREMENT,
+    assignment_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    submission_text VARCHAR(2000),
+    file_names VARCHAR(1000),
+    submitted_at DATETIME(6) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    grade INTEGER,
+    feedback VARCHAR(1000),
+    PRIMARY KEY (submission_id),
+    CONSTRAINT fk_submissions_assignment FOREIGN KEY (assignment_id) REFERENCES assignments (activity_id),
+    CONSTRAINT fk_submissions_student FOREIGN KEY (student_id) REFERENCES users (id)
+);
+
+CREATE TABLE calendar_events (
+    eventid BIGINT NOT NULL AUTO_INCREMENT,
+    location VARCHAR(255),
+    description VARCHAR(255),
+    title VARCHAR(255),
+    date DATETIME(6),
+    reminder_time DATETIME(6),
+    end_time DATETIME(6),
+    user_id BIGINT NOT NULL,
+    subject_id BIGINT,
+    PRIMARY KEY (eventid),
+    CONSTRAINT fk_calendar_events_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_calendar_events_subject FOREIGN KEY (subject_id) REFERENCES subjects (subject_id)
+);
+
+CREATE TABLE chats (
+    chat_id BIGINT NOT NULL AUTO_INCREMENT,
+    content TEXT NOT NULL,
+    timestamp DATETIME(6) NOT NULL,
+    user_id BIGINT NOT NULL,
+    parent_chat_id BIGINT,
+    is_edited BOOLEAN NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    channel_name VARCHAR(255),
+    PRIMARY KEY (chat_id),
+    CONSTRAINT fk_chats_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_chats_parent FOREIGN KEY (parent_chat_id) REFERENCES chats (chat_id)
+);
+
+CREATE TABLE class_posts (
+    post_id BIGINT NOT NULL AUTO_INCREMENT,
+    subject_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    PRIMARY KEY (post_id),
+    CONSTRAINT fk_class_posts_subject FOREIGN KEY (subject_id) REFERENCES subjects (subject_id),
+    CONSTRAINT fk_class_posts_author FOREIGN KEY (author_id) REFERENCES users (id)
+);
+
+CREATE TABLE class_replies (
+    reply_id BIGINT NOT NULL AUTO_INCREMENT,
+    post_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    PRIMARY KEY (reply_id),
+    CONSTRAINT fk_class_replies_post FOREIGN KEY (post_id) REFERENCES class_posts (post_id),
+    CONSTRAINT fk_class_replies_author FOREIGN KEY (author_id) REFERENCES users (id)
+);
+
+CREATE TABLE conversations (
+    conversation_id BIGINT NOT NULL AUTO_INCREMENT,
+    user1_id BIGINT NOT NULL,
+    user2_id BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    last_message_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (conversation_id),
+    CONSTRAINT fk_conversations_user1 FOREIGN KEY (user1_id) REFERENCES users (id),
+    CONSTRAINT fk_conversations_user2 FOREIGN KEY (user2_id) REFERENCES users (id)
+);
+
+CREATE TABLE side_chats (
+    side_chat_id BIGINT NOT NULL AUTO_INCREMENT,
+    conversation_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    created_by BIGINT NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    PRIMARY KEY (side_chat_id),
+    CONSTRAINT fk_side_chats_conversation FOREIGN KEY (conversation_id) REFERENCES conversations (conversation_id),
+    CONSTRAINT fk_side_chats_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+);
+
+CREATE TABLE messages (
+    message_id BIGINT NOT NULL AUTO_INCREMENT,
+    conversation_id BIGINT NOT NULL,
+    side_chat_id BIGINT,
+    sender_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    timestamp DATETIME(6) NOT NULL,
+    is_edited BOOLEAN NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    file_url VARCHAR(255),
+    file_name VARCHAR(255),
+    file_type VARCHAR(255),
+    PRIMARY KEY (message_id),
+    CONSTRAINT fk_messages_conversation FOREIGN KEY (conversation_id) REFERENCES conversations (conversation_id),
+    CONSTRAINT fk_messages_side_chat FOREIGN KEY (side_chat_id) REFERENCES side_chats (side_chat_id),
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id)
+);
+
+CREATE TABLE notifications (
+    notif_id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(1000),
+    type VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    is_read BOOLEAN NOT NULL,
+    created_at DATETIME(6),
+    reference_id BIGINT,
+    user_id BIGINT,
+    PRIMARY KEY (notif_id),
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,81 @@
+-- Composite indexes and unique constraints for the hot repository finders.
+
+-- MessageRepository: main-thread and side-chat history, keyset-paged by message_id
+CREATE INDEX idx_messages_thread ON messages (conversation_id, side_chat_id, is_deleted, message_id);
+CREATE INDEX idx_messages_side_chat ON messages (side_chat_id, is_deleted, message_id);
+
+-- NotificationRepository: unread lists/counts and the newest-first feed
+CREATE INDEX idx_notifications_user_read_created ON notifications (user_id, is_read, created_at);
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
+
+-- Databases created by ddl-auto may hold duplicate submissions or enrollments, which the unique constraints
+-- below reject. Nothing is deleted outright: every row but one per pair is moved to a *_duplicates table
+-- (same columns plus archived_at), where an operator can review it and restore or merge it by hand.
+-- (The grouped derived tables are materialized, which lets MySQL delete from the table they read.)
+
+CREATE TABLE assignment_submissions_duplicates (
+    submission_id BIGINT NOT NULL,
+    assignment_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    submission_text VARCHAR(2000),
+    file_names VARCHAR(1000),
+    submitted_at DATETIME(6) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    grade INTEGER,
+    feedback VARCHAR(1000),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (submission_id)
+);
+
+CREATE TABLE enrollments_duplicates (
+    enrollment_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    enrolled_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (enrollment_id)
+);
+
+-- AssignmentSubmissionRepository: one submission per student per assignment, submitted-id lookups.
+-- The latest submission stays in place.
+INSERT INTO assignment_submissions_duplicates (submission_id, assignment_id, student_id, submission_text,
+    file_names, submitted_at, status, grade, feedback, archived_at)
+SELECT submission_id, assignment_id, student_id, submission_text, file_names, submitted_at, status, grade, feedback,
+    CURRENT_TIMESTAMP(6)
+FROM assignment_submissions WHERE submission_id NOT IN (
+    SELECT keep_id FROM (
+        SELECT MAX(submission_id) AS keep_id FROM assignment_submissions GROUP BY assignment_id, student_id
+    ) latest
+);
+DELETE FROM assignment_submissions
+    WHERE submission_id IN (SELECT submission_id FROM assignment_submissions_duplicates);
+ALTER TABLE assignment_submissions
+    ADD CONSTRAINT uq_submissions_assignment_student UNIQUE (assignment_id, student_id);
+CREATE INDEX idx_submissions_student_assignment ON assignment_submissions (student_id, assignment_id);
+
+-- EnrollmentRepository: one enrollment per student per subject, subject fan-out.
+-- The first enrollment stays, and the enrolled_students counters (incremented once per duplicate) are recounted.
+INSERT INTO enrollments_duplicates (enrollment_id, student_id, subject_id, enrolled_at, archived_at)
+SELECT enrollment_id, student_id, subject_id, enrolled_at, CURRENT_TIMESTAMP(6)
+FROM enrollments WHERE enrollment_id NOT IN (
+    SELECT keep_id FROM (
+        SELECT MIN(enrollment_id) AS keep_id FROM enrollments GROUP BY student_id, subject_id
+    ) first_enrollment
+);
+DELETE FROM enrollments WHERE enrollment_id IN (SELECT enrollment_id FROM enrollments_duplicates);
+UPDATE subjects SET enrolled_students = (
+    SELECT COUNT(*) FROM enrollments e WHERE e.subject_id = subjects.subject_id
+);
+ALTER TABLE enrollments
+    ADD CONSTRAINT uq_enrollments_student_subject UNIQUE (student_id, subject_id);
+CREATE INDEX idx_enrollments_subject_student ON enrollments (subject_id, student_id);
+
+-- ChatRepository: channel timeline
+CREATE INDEX idx_chats_channel_thread ON chats (channel_name, parent_chat_id, is_deleted, timestamp);
+
+-- ConversationRepository: inbox ordered by last activity
+CREATE INDEX idx_conversations_user1_last ON conversations (user1_id, last_message_at);
+CREATE INDEX idx_conversations_user2_last ON conversations (user2_id, last_message_at);
+
+-- AssignmentRepository: per-subject lists ordered by due date
+CREATE INDEX idx_assignments_subject_due ON assignments (subject_id, due_date);
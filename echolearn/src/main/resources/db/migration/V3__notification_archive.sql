@@ -0,0 +1,20 @@
+-- Read notifications past the retention window are moved here by NotificationArchiveService.
+
+CREATE TABLE notifications_archive (
+    notif_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(1000),
+    type VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    is_read BOOLEAN NOT NULL,
+    created_at DATETIME(6),
+    reference_id BIGINT,
+    user_id BIGINT,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (notif_id)
+);
+
+CREATE INDEX idx_notifications_archive_user_created ON notifications_archive (user_id, created_at);
+
+-- Drives the retention sweep: read rows ordered by age
+CREATE INDEX idx_notifications_read_created ON notifications (is_read, created_at);
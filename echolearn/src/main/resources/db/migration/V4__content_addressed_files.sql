@@ -0,0 +1,21 @@
+-- Content-addressed upload storage: one blob per distinct SHA-256, many stored names per blob.
+
+CREATE TABLE file_blobs (
+    hash VARCHAR(64) NOT NULL,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (hash)
+);
+
+CREATE TABLE stored_files (
+    stored_name VARCHAR(255) NOT NULL,
+    blob_hash VARCHAR(64) NOT NULL,
+    original_file_name VARCHAR(255),
+    content_type VARCHAR(255),
+    size BIGINT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (stored_name)
+);
+
+CREATE INDEX idx_stored_files_blob ON stored_files (blob_hash);
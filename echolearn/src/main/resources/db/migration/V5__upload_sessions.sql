@@ -0,0 +1,14 @@
+-- Chunked, resumable uploads in progress (see ChunkedUploadService).
+
+CREATE TABLE upload_sessions (
+    upload_id VARCHAR(36) NOT NULL,
+    original_file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255),
+    total_size BIGINT NOT NULL,
+    received_bytes BIGINT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (upload_id)
+);
+
+CREATE INDEX idx_upload_sessions_updated ON upload_sessions (updated_at);
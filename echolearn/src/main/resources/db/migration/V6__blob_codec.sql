@@ -0,0 +1,3 @@
+-- Encoding of the stored blob content (NULL = stored as uploaded, 'gzip' = compressed at rest).
+
+ALTER TABLE file_blobs ADD COLUMN codec VARCHAR(16);
@@ -0,0 +1,5 @@
+-- Range-bounded calendar reads: a user's events by start time and personal assignments by due date.
+-- Subject assignments are covered by idx_assignments_subject_due (V2).
+
+CREATE INDEX idx_calendar_events_user_date ON calendar_events (user_id, date);
+CREATE INDEX idx_assignments_user_due ON assignments (user_id, due_date);
@@ -0,0 +1,20 @@
+-- Per-user calendar read model: one row per (user, event or assignment) the user sees, keyed for
+-- range scans by day. Maintained incrementally by CalendarFeedService; rebuilt from the source tables on startup.
+
+CREATE TABLE calendar_feed (
+    user_id BIGINT NOT NULL,
+    source_type VARCHAR(16) NOT NULL,
+    source_id BIGINT NOT NULL,
+    feed_day DATE NOT NULL,
+    end_day DATE NOT NULL,
+    title VARCHAR(255),
+    start_time DATETIME(6),
+    end_time DATETIME(6),
+    completed BOOLEAN,
+    location VARCHAR(255),
+    description VARCHAR(1000),
+    PRIMARY KEY (user_id, source_type, source_id)
+);
+
+CREATE INDEX idx_calendar_feed_user_day ON calendar_feed (user_id, feed_day);
+CREATE INDEX idx_calendar_feed_source ON calendar_feed (source_type, source_id);
@@ -0,0 +1,3 @@
+-- When the feed row was last (re)written; with the row count it versions a user's calendar for ICS ETags.
+
+ALTER TABLE calendar_feed ADD COLUMN updated_at DATETIME(6);
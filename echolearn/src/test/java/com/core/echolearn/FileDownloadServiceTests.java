@@ -0,0 +1,58 @@
+package com.core.echolearn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.core.echolearn.service.FileDownloadService;
+
+// Range handling of assignment downloads; resumed downloads send a Range from wherever the client stopped
+class FileDownloadServiceTests {
+
+	private final FileDownloadService service = new FileDownloadService();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void servesSingleRange() throws IOException {
+		MockHttpServletResponse response = serve("bytes=2-5");
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 2-5/10");
+		assertThat(response.getContentAsString()).isEqualTo("2345");
+	}
+
+	@Test
+	void rejectsRangeStartingPastTheEnd() throws IOException {
+		MockHttpServletResponse response = serve("bytes=10-");
+
+		assertThat(response.getStatus()).isEqualTo(416);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void rejectsEmptySuffixRange() throws IOException {
+		MockHttpServletResponse response = serve("bytes=-0");
+
+		assertThat(response.getStatus()).isEqualTo(416);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+	}
+
+	private MockHttpServletResponse serve(String range) throws IOException {
+		Path file = Files.writeString(dir.resolve("notes.txt"), "0123456789");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/assignments/download/notes.txt");
+		request.addHeader("Range", range);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.serve(file, "notes.txt", request, response);
+		return response;
+	}
+}
@@ -0,0 +1,128 @@
+package com.core.echolearn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.core.echolearn.entity.Assignment;
+import com.core.echolearn.entity.Conversation;
+import com.core.echolearn.entity.Message;
+import com.core.echolearn.entity.User;
+import com.core.echolearn.repository.StoredFileRepository;
+import com.core.echolearn.repository.UserRepository;
+import com.core.echolearn.service.AssignmentService;
+import com.core.echolearn.service.AssignmentSubmissionService;
+import com.core.echolearn.service.ConversationService;
+import com.core.echolearn.service.FileStorageService;
+
+// Files are deleted once the assignment, submission or message that held them is gone (H2 in MySQL mode)
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:file-release;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.datasource.username=sa", "spring.datasource.password=",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"file.upload-dir=target/test-uploads"
+})
+class FileReleaseTests {
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private StoredFileRepository storedFileRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ConversationService conversationService;
+
+	@Autowired
+	private AssignmentService assignmentService;
+
+	@Autowired
+	private AssignmentSubmissionService submissionService;
+
+	@Test
+	void deletingMessageDeletesItsAttachment() {
+		String reference = upload("chat attachment");
+		Path blob = blobOf(reference);
+		String storedName = fileStorageService.getStoredName(reference);
+		User alice = user("STUDENT");
+		Conversation conversation = conversationService.getOrCreateConversation(alice, user("STUDENT"));
+		Message message = conversationService.sendMessageWithFile(conversation.getConversationId(), alice,
+			"📎 notes.txt", storedName, "notes.txt", "text/plain");
+
+		assertThat(conversationService.deleteMessage(message.getMessageId())).isTrue();
+
+		assertThat(storedFileRepository.findById(storedName)).isEmpty();
+		assertThat(blob).doesNotExist();
+	}
+
+	@Test
+	void deletingAssignmentDeletesItsAndItsSubmissionsFiles() {
+		String handout = upload("assignment handout");
+		String answer = upload("student answer");
+		Path handoutBlob = blobOf(handout);
+		Path answerBlob = blobOf(answer);
+		Assignment assignment = new Assignment();
+		assignment.setTitle("Homework");
+		assignment.setDifficulty("EASY");
+		assignment.setCompleted(false);
+		assignment.setFileNames(handout);
+		assignment.setUser(user("TEACHER"));
+		assignment = assignmentService.createAssignment(assignment);
+		submissionService.submitAssignment(assignment, user("STUDENT"), "done", answer);
+
+		assignmentService.deleteAssignment(assignment.getActivityId());
+
+		assertThat(handoutBlob).doesNotExist();
+		assertThat(answerBlob).doesNotExist();
+		assertThat(storedFileRepository.findById(fileStorageService.getStoredName(answer))).isEmpty();
+	}
+
+	@Test
+	void editingAssignmentDeletesOnlyRemovedFiles() {
+		String kept = upload("kept handout");
+		String dropped = upload("dropped handout");
+		Path keptBlob = blobOf(kept);
+		Path droppedBlob = blobOf(dropped);
+		Assignment assignment = new Assignment();
+		assignment.setTitle("Homework");
+		assignment.setDifficulty("EASY");
+		assignment.setCompleted(false);
+		assignment.setFileNames(kept + "," + dropped);
+		assignment.setUser(user("TEACHER"));
+		assignment = assignmentService.createAssignment(assignment);
+
+		assignment.setFileNames(kept);
+		assignmentService.updateAssignment(assignment);
+
+		assertThat(keptBlob).exists();
+		assertThat(droppedBlob).doesNotExist();
+	}
+
+	private String upload(String content) {
+		return fileStorageService.storeFileWithResult(new MockMultipartFile("file", "notes.txt", "text/plain",
+			(content + " " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8))).getFileName();
+	}
+
+	private Path blobOf(String reference) {
+		Path blob = fileStorageService.loadFile(fileStorageService.resolveKey(reference));
+		assertThat(blob).exists();
+		return blob;
+	}
+
+	private User user(String role) {
+		String name = "user" + UUID.randomUUID().toString().substring(0, 8);
+		return userRepository.save(new User(name + "@example.com", name, "password", role));
+	}
+}
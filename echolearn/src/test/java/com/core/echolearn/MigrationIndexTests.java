@@ -0,0 +1,209 @@
+package com.core.echolearn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.core.echolearn.entity.Notification;
+
+// Applies db/migration to an in-memory H2 (MySQL mode) and checks the hot finders are served by an index
+class MigrationIndexTests {
+
+	private static final String URL = "jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static Connection connection;
+
+	@BeforeAll
+	static void migrate() throws SQLException {
+		Flyway.configure()
+			.dataSource(URL, "sa", "")
+			.locations("classpath:db/migration")
+			.load()
+			.migrate();
+		connection = DriverManager.getConnection(URL, "sa", "");
+	}
+
+	@AfterAll
+	static void close() throws SQLException {
+		connection.close();
+	}
+
+	@Test
+	void conversationThreadUsesIndex() throws SQLException {
+		assertIndexed("SELECT * FROM messages WHERE conversation_id = 1 AND side_chat_id IS NULL "
+			+ "AND is_deleted = FALSE AND message_id < 100 ORDER BY message_id DESC LIMIT 51");
+	}
+
+	@Test
+	void sideChatThreadUsesIndex() throws SQLException {
+		assertIndexed("SELECT * FROM messages WHERE side_chat_id = 1 AND is_deleted = FALSE "
+			+ "ORDER BY message_id DESC LIMIT 51");
+	}
+
+	@Test
+	void unreadNotificationsUseIndex() throws SQLException {
+		assertIndexed("SELECT COUNT(*) FROM notifications WHERE user_id = 1 AND is_read = FALSE");
+		assertIndexed("SELECT * FROM notifications WHERE user_id = 1 AND is_read = FALSE ORDER BY created_at DESC");
+	}
+
+	@Test
+	void submissionLookupsUseIndex() throws SQLException {
+		assertIndexed("SELECT submission_id FROM assignment_submissions WHERE assignment_id = 1 AND student_id = 1");
+		assertIndexed("SELECT assignment_id FROM assignment_submissions WHERE student_id = 1");
+	}
+
+	@Test
+	void enrollmentLookupsUseIndex() throws SQLException {
+		assertIndexed("SELECT enrollment_id FROM enrollments WHERE student_id = 1 AND subject_id = 1");
+		assertIndexed("SELECT student_id FROM enrollments WHERE subject_id = 1");
+	}
+
+	@Test
+	void channelTimelineUsesIndex() throws SQLException {
+		assertIndexed("SELECT * FROM chats WHERE channel_name = 'general' AND parent_chat_id IS NULL "
+			+ "AND is_deleted = FALSE ORDER BY timestamp ASC");
+	}
+
+	@Test
+	void calendarRangeUsesIndex() throws SQLException {
+		assertIndexed("SELECT * FROM calendar_events WHERE user_id = 1 AND date >= TIMESTAMP '2026-08-31 00:00:00' "
+			+ "AND date < TIMESTAMP '2026-11-01 00:00:00' AND COALESCE(end_time, date) >= TIMESTAMP '2026-10-01 00:00:00' "
+			+ "ORDER BY date");
+		assertIndexed("SELECT * FROM assignments WHERE user_id = 1 "
+			+ "AND due_date >= DATE '2026-10-01' AND due_date < DATE '2026-11-01'");
+	}
+
+	@Test
+	void calendarFeedRangeUsesIndex() throws SQLException {
+		assertIndexed("SELECT * FROM calendar_feed WHERE user_id = 1 AND feed_day >= DATE '2026-08-31' "
+			+ "AND feed_day < DATE '2026-11-01' AND end_day >= DATE '2026-10-01' ORDER BY feed_day, start_time");
+	}
+
+	@Test
+	void pendingRemindersUseIndex() throws SQLException {
+		assertIndexed("SELECT eventid, reminder_time FROM calendar_events WHERE reminder_sent_at IS NULL "
+			+ "AND reminder_time >= TIMESTAMP '2026-10-01 00:00:00' AND reminder_time < TIMESTAMP '2026-10-01 00:15:00' "
+			+ "ORDER BY reminder_time, eventid LIMIT 1000");
+	}
+
+	@Test
+	void assignmentReminderScanUsesIndex() throws SQLException {
+		assertIndexed("SELECT activity_id FROM assignments WHERE due_date >= DATE '2026-10-01' "
+			+ "AND due_date <= DATE '2026-10-04'");
+		assertIndexed("SELECT 1 FROM assignment_reminders WHERE assignment_id = 1 AND student_id = 1 AND kind = 'DUE_1'");
+	}
+
+	@Test
+	void duplicateEnrollmentIsRejected() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("INSERT INTO users (id, email, username, password, role) "
+				+ "VALUES (900, 't@x.io', 'teacher900', 'x', 'TEACHER'), (901, 's@x.io', 'student901', 'x', 'STUDENT')");
+			statement.executeUpdate("INSERT INTO subjects (subject_id, subject_name, subject_code, subject_schedule, "
+				+ "subject_capacity, enrolled_students, teacher_id) VALUES (900, 'Math', 'M900', NOW(), 10, 0, 900)");
+			statement.executeUpdate("INSERT INTO enrollments (student_id, subject_id) VALUES (901, 900)");
+
+			boolean rejected = false;
+			try {
+				statement.executeUpdate("INSERT INTO enrollments (student_id, subject_id) VALUES (901, 900)");
+			} catch (SQLException e) {
+				rejected = true;
+			}
+			assertThat(rejected).isTrue();
+		}
+	}
+
+	@Test
+	void uniqueConstraintsArchiveExistingDuplicates() throws SQLException {
+		String url = "jdbc:h2:mem:duplicates;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+		Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration").target("1").load().migrate();
+		try (Connection legacy = DriverManager.getConnection(url, "sa", "");
+			 Statement statement = legacy.createStatement()) {
+			statement.executeUpdate("INSERT INTO users (id, email, username, password, role) "
+				+ "VALUES (1, 't@x.io', 'teacher', 'x', 'TEACHER'), (2, 's@x.io', 'student', 'x', 'STUDENT')");
+			statement.executeUpdate("INSERT INTO subjects (subject_id, subject_name, subject_code, subject_schedule, "
+				+ "subject_capacity, enrolled_students, teacher_id) VALUES (1, 'Math', 'M1', NOW(), 10, 2, 1)");
+			statement.executeUpdate("INSERT INTO enrollments (student_id, subject_id) VALUES (2, 1), (2, 1)");
+			statement.executeUpdate("INSERT INTO assignments (activity_id, title, difficulty, completed, subject_id) "
+				+ "VALUES (1, 'Homework', 'EASY', FALSE, 1)");
+			statement.executeUpdate("INSERT INTO assignment_submissions (submission_id, assignment_id, student_id, "
+				+ "submission_text, submitted_at, status, grade) VALUES (1, 1, 2, 'first', NOW(), 'GRADED', 90), "
+				+ "(2, 1, 2, 'second', NOW(), 'SUBMITTED', NULL)");
+
+			Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration").load().migrate();
+
+			assertThat(count(statement, "SELECT COUNT(*) FROM enrollments")).isEqualTo(1);
+			assertThat(count(statement, "SELECT COUNT(*) FROM enrollments_duplicates")).isEqualTo(1);
+			assertThat(count(statement, "SELECT enrolled_students FROM subjects WHERE subject_id = 1")).isEqualTo(1);
+			assertThat(count(statement, "SELECT submission_id FROM assignment_submissions")).isEqualTo(2);
+			// The graded submission is kept, not lost
+			assertThat(count(statement, "SELECT grade FROM assignment_submissions_duplicates "
+				+ "WHERE submission_id = 1 AND submission_text = 'first'")).isEqualTo(90);
+		}
+	}
+
+	// A database created by ddl-auto=update before Flyway: stamped at the baseline version, then migrated
+	@Test
+	void baselinedLegacyDatabaseMigrates() throws SQLException {
+		String url = "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+		try (Connection legacy = DriverManager.getConnection(url, "sa", "");
+			 Statement statement = legacy.createStatement()) {
+			statement.execute("RUNSCRIPT FROM 'classpath:db/migration/V1__baseline_schema.sql'");
+			statement.executeUpdate("INSERT INTO users (id, email, username, password, role) "
+				+ "VALUES (1, 'a@x.io', 'alice', 'x', 'STUDENT'), (2, 'b@x.io', 'bob', 'x', 'STUDENT')");
+			statement.executeUpdate("INSERT INTO conversations (conversation_id, user1_id, user2_id, created_at, "
+				+ "last_message_at) VALUES (1, 1, 2, NOW(), NOW()), (2, 1, 2, NOW(), NOW())");
+			statement.executeUpdate("INSERT INTO messages (message_id, conversation_id, sender_id, content, timestamp, "
+				+ "is_edited, is_deleted) VALUES (1, 1, 1, 'hi bob', '2025-01-01 10:00:00', FALSE, FALSE), "
+				+ "(2, 1, 2, 'hi alice', '2025-01-01 10:05:00', FALSE, FALSE)");
+			statement.executeUpdate("INSERT INTO notifications (notif_id, title, type, status, is_read, user_id) "
+				+ "VALUES (120, 'Hello', 'MESSAGE', 'UNREAD', FALSE, 1)");
+
+			Flyway.configure()
+				.dataSource(url, "sa", "")
+				.locations("classpath:db/migration")
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load()
+				.migrate();
+
+			assertThat(count(statement, "SELECT COUNT(*) FROM flyway_schema_history "
+				+ "WHERE version = '1' AND type = 'BASELINE'")).isEqualTo(1);
+			// Existing conversations get their inbox fields from the newest message; empty ones stay blank
+			assertThat(count(statement, "SELECT COUNT(*) FROM conversations WHERE conversation_id = 1 "
+				+ "AND last_message_id = 2 AND last_message_sender_id = 2 AND last_message_preview = 'hi alice' "
+				+ "AND last_message_at = '2025-01-01 10:05:00' AND user2_last_read_at = last_message_at "
+				+ "AND user1_last_read_at IS NULL")).isEqualTo(1);
+			assertThat(count(statement, "SELECT COUNT(*) FROM conversations "
+				+ "WHERE conversation_id = 2 AND last_message_id IS NULL")).isEqualTo(1);
+			// The generator starts a full allocation above the ids issued under IDENTITY
+			assertThat(count(statement, "SELECT next_val FROM id_generators WHERE sequence_name = 'notifications'"))
+				.isGreaterThan(120 + Notification.ID_ALLOCATION_SIZE);
+		}
+	}
+
+	private static long count(Statement statement, String sql) throws SQLException {
+		try (ResultSet rs = statement.executeQuery(sql)) {
+			assertThat(rs.next()).isTrue();
+			return rs.getLong(1);
+		}
+	}
+
+	// H2 reports "tableScan" in the plan when no index can be used
+	private static void assertIndexed(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+			assertThat(rs.next()).isTrue();
+			String plan = rs.getString(1);
+			assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.core.echolearn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.core.echolearn.service.TimingWheel;
+
+// ReminderService keeps every loaded reminder on one wheel, so its footprint must stay flat per timer
+class TimingWheelTests {
+
+	private static final long START = 1_790_000_000_000L;
+
+	@Test
+	void firesOnFirstAdvanceAtOrAfterDeadline() {
+		TimingWheel wheel = new TimingWheel(1000, START, 16);
+		wheel.schedule(1, START + 1500);
+		wheel.schedule(2, START + 3 * 3600_000L);
+		wheel.schedule(3, START - 5000);
+
+		assertThat(wheel.advance(START)).containsExactly(3);
+		assertThat(wheel.advance(START + 1999)).isEmpty();
+		assertThat(wheel.advance(START + 2000)).containsExactly(1);
+		assertThat(wheel.advance(START + 3 * 3600_000L - 1)).isEmpty();
+		assertThat(wheel.advance(START + 3 * 3600_000L)).containsExactly(2);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void schedulesMillionRemindersWithinHeapBudget() {
+		int count = 1_000_000;
+		// One day of reminders, spread over every level below the hour
+		long spanMs = 24 * 3600_000L;
+		Runtime runtime = Runtime.getRuntime();
+		long before = usedHeap(runtime);
+
+		TimingWheel wheel = new TimingWheel(1000, START, 1024);
+		for (int i = 0; i < count; i++) {
+			wheel.schedule(i, START + (i * 7919L) % spanMs);
+		}
+
+		long used = usedHeap(runtime) - before;
+		assertThat(wheel.size()).isEqualTo(count);
+		// Three primitive arrays of 2^20 entries (20 MB) plus slack for measurement noise
+		assertThat(used).isLessThan(32L * 1024 * 1024);
+
+		long[] fired = wheel.advance(START + spanMs);
+		assertThat(fired).hasSize(count);
+		Arrays.sort(fired);
+		assertThat(fired[0]).isZero();
+		assertThat(fired[count - 1]).isEqualTo(count - 1);
+		assertThat(wheel.size()).isZero();
+	}
+
+	private static long usedHeap(Runtime runtime) {
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}